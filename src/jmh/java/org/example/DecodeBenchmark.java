@@ -0,0 +1,88 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for parsing a response and formatting the reader's log message.
+ * Each benchmark has its own state so it only runs for the parameters it depends on.
+ * Benchmarks that write entries through a sink are in {@link OutputBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecodeBenchmark {
+
+    /**
+     * A generated response, with or without the responder certificate.
+     */
+    @State(Scope.Benchmark)
+    public static class Response {
+
+        @Param({"1", "100", "10000"})
+        public int entries;
+
+        @Param({"true", "false"})
+        public boolean withCertificates;
+
+        private final OCSPRespReader reader = new OCSPRespReader();
+        private byte[] der;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            der = new OCSPResponseGenerator().generate(entries, withCertificates);
+        }
+    }
+
+    /**
+     * The decoded entries of a generated response.
+     */
+    @State(Scope.Benchmark)
+    public static class Entries {
+
+        @Param({"1", "100", "10000"})
+        public int entries;
+
+        private final OCSPRespReader reader = new OCSPRespReader();
+        private List<OCSPEntry> decoded;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            decoded = reader.decodeResponse(new OCSPResponseGenerator().generate(entries, false));
+        }
+    }
+
+    @Benchmark
+    public OCSPResp validateAndParse(Response response) throws OCSPException, IOException {
+        return response.reader.validateAndParse(response.der);
+    }
+
+    @Benchmark
+    public void buildOutputMsg(Entries entries, Blackhole blackhole) {
+        for (OCSPEntry entry : entries.decoded) {
+            String status = entry.status() == OCSPEntry.Status.REVOKED
+                    ? "REVOKED at " + entry.revocationTime()
+                    : entry.status().name();
+            blackhole.consume(entries.reader.buildOutputMsg(entry.serial(), status, entry.thisUpdate()));
+        }
+    }
+}
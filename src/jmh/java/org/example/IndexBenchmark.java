@@ -0,0 +1,71 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for querying a populated revocation index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexBenchmark {
+
+    private static final String ISSUER = "E9DF7B2AA969FB9FB85DCB8BDE3A5967F2F7E029";
+
+    @Param({"1000000"})
+    public int serials;
+
+    private Path file;
+    private RevocationIndex index;
+    private String[] keys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempDirectory("ocsp-bench").resolve("revocations.idx");
+        keys = new String[1024];
+        Date thisUpdate = new Date();
+        try (RevocationIndex writer = RevocationIndex.open(file)) {
+            for (int i = 0; i < serials; i++) {
+                String serial = Long.toHexString(0x1000_0000_0000L + i * 7919L).toUpperCase();
+                writer.put(new OCSPEntry(serial, OCSPEntry.Status.values()[i % 3], null, thisUpdate, ISSUER));
+                if (i % (serials / keys.length) == 0 && i / (serials / keys.length) < keys.length) {
+                    keys[i / (serials / keys.length)] = serial;
+                }
+            }
+        }
+        index = RevocationIndex.open(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        index.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public OCSPEntry lookup() {
+        return index.lookup(ISSUER, keys[next++ & (keys.length - 1)]);
+    }
+}
@@ -0,0 +1,85 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.cert.ocsp.SingleResp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for decoding entries and writing them through the selected sink
+ * into a channel that discards them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int entries;
+
+    @Param({"true", "false"})
+    public boolean withCertificates;
+
+    @Param({"TEXT", "NDJSON", "CSV"})
+    public OutputFormat format;
+
+    private OCSPRespReader reader;
+    private byte[] der;
+    private SingleResp[] responses;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        reader = new OCSPRespReader(format.open(new DiscardingChannel(), true));
+        der = new OCSPResponseGenerator().generate(entries, withCertificates);
+        responses = ((BasicOCSPResp) reader.validateAndParse(der).getResponseObject()).getResponses();
+    }
+
+    @Benchmark
+    public void decodeLazily() throws OCSPException, IOException {
+        reader.decodeLazily(der, null);
+    }
+
+    @Benchmark
+    public void decodeSingleResp() throws IOException {
+        for (SingleResp singleResp : responses) {
+            reader.decodeSingleResp(singleResp);
+        }
+    }
+
+    private static final class DiscardingChannel implements WritableByteChannel {
+        @Override
+        public int write(ByteBuffer src) {
+            int remaining = src.remaining();
+            src.position(src.limit());
+            return remaining;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for reading responses from disk and detecting their encoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int entries;
+
+    @Param({"true", "false"})
+    public boolean withCertificates;
+
+    @Param({"DER", "BASE64"})
+    public String encoding;
+
+    private final OCSPRespReader reader = new OCSPRespReader();
+    private Path file;
+    private String filePath;
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        byte[] der = new OCSPResponseGenerator().generate(entries, withCertificates);
+        content = "BASE64".equals(encoding) ? Base64.getMimeEncoder().encode(der) : der;
+        file = Files.createTempFile("ocsp-bench", ".resp");
+        Files.write(file, content);
+        filePath = file.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public byte[] readOCSPResponse() throws IOException {
+        return reader.readOCSPResponse(filePath);
+    }
+
+    @Benchmark
+    public boolean isBase64Encoded() {
+        return OCSPRespReader.isBase64Encoded(content);
+    }
+}
@@ -0,0 +1,288 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.bouncycastle.cert.ocsp.OCSPException;
+
+/**
+ * Decodes many OCSP response files in one JVM on a bounded pool of virtual threads.
+ */
+public class BatchProcessor {
+
+    static final String BATCH_FLAG = "--batch";
+    static final String CONCURRENCY_FLAG = "--concurrency";
+    static final String ORDERED_FLAG = "--ordered";
+
+    private static final Logger LOG = Logger.getLogger(BatchProcessor.class.getName());
+    private static final String GLOB_CHARS = "*?[{";
+
+    private final OCSPRespReader reader;
+    private final int concurrency;
+    private final boolean ordered;
+
+    /**
+     * @param reader decoder shared by all workers.
+     * @param concurrency maximum number of files decoded at the same time.
+     * @param ordered emit results in input order instead of completion order.
+     */
+    public BatchProcessor(OCSPRespReader reader, int concurrency, boolean ordered) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1: " + concurrency);
+        }
+        this.reader = reader;
+        this.concurrency = concurrency;
+        this.ordered = ordered;
+    }
+
+    /**
+     * Entry point for {@code --batch}. Writes every entry and every failed file to the reader's sink.
+     * @param reader decoder whose sink receives the results.
+     * @param args batch options followed by input specs.
+     */
+    static void run(OCSPRespReader reader, List<String> args) {
+        int concurrency = Runtime.getRuntime().availableProcessors();
+        boolean ordered = false;
+        List<String> specs = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.size(); i++) {
+                if (CONCURRENCY_FLAG.equals(args.get(i)) && i + 1 < args.size()) {
+                    concurrency = Integer.parseInt(args.get(++i));
+                } else if (ORDERED_FLAG.equals(args.get(i))) {
+                    ordered = true;
+                } else {
+                    specs.add(args.get(i));
+                }
+            }
+            if (specs.isEmpty()) {
+                throw new IllegalArgumentException("No input files given for " + BATCH_FLAG);
+            }
+            BatchProcessor processor = new BatchProcessor(reader, concurrency, ordered);
+            ResultSink sink = reader.getSink();
+            Summary summary = processor.process(resolveInputs(specs), result -> writeResult(sink, result));
+            LOG.log(Level.INFO, "Processed {0} files, {1} failed.",
+                    new Object[] {summary.processed(), summary.failed()});
+        } catch (IllegalArgumentException | IOException e) {
+            LOG.log(Level.SEVERE, "Failed to run batch: {0}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.log(Level.SEVERE, "Batch interrupted: {0}", e.getMessage());
+        }
+    }
+
+    /**
+     * Decode every file, handing each result to the consumer as soon as it may be emitted.
+     * The consumer is never called concurrently. A worker permit is only returned once its result
+     * has been emitted, so at most {@code concurrency} results are held in memory even when ordered
+     * output waits for a slow file. A result whose consumer throws is counted as failed.
+     * @param files inputs to decode.
+     * @param consumer receives one result per file.
+     * @return number of processed and failed files.
+     * @throws InterruptedException if interrupted while waiting for a free worker.
+     */
+    public Summary process(List<Path> files, Consumer<Result> consumer) throws InterruptedException {
+        Semaphore permits = new Semaphore(concurrency);
+        Emitter emitter = new Emitter(consumer, permits);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < files.size(); i++) {
+                int index = i;
+                Path file = files.get(i);
+                permits.acquire();
+                executor.execute(() -> emitter.emit(index, processSafely(file)));
+            }
+        }
+        return new Summary(files.size(), emitter.failed.get());
+    }
+
+    /**
+     * Read and decode a single file, capturing any failure in the result.
+     * @param file input file.
+     * @return decoded entries and signature outcome, or the error.
+     */
+    protected Result processFile(Path file) {
+        try {
+            byte[] responseBytes = reader.readOCSPResponse(file.toString());
+            DecodedResponse decoded = reader.decodeAndVerify(responseBytes);
+            return new Result(file, decoded.entries(), decoded.signature(), null);
+        } catch (OCSPException | IOException | RuntimeException e) {
+            return new Result(file, List.of(), null, e);
+        }
+    }
+
+    /**
+     * Run {@link #processFile(Path)} and capture anything it throws, including errors such as
+     * StackOverflowError on deeply nested input, so every file is emitted and returns its permit.
+     */
+    private Result processSafely(Path file) {
+        try {
+            return processFile(file);
+        } catch (Throwable t) {
+            return new Result(file, List.of(), null, new IllegalStateException("Failed to decode " + file + ": " + t, t));
+        }
+    }
+
+    /**
+     * Expand directories, globs and {@code @file} lists into a list of files.
+     * Each spec expands in sorted order so the input order is deterministic.
+     * @param specs paths, directories, glob patterns or {@code @} prefixed list files.
+     * @return files to process.
+     * @throws IOException if a directory or list file cannot be read.
+     */
+    static List<Path> resolveInputs(List<String> specs) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String spec : specs) {
+            if (spec.startsWith("@")) {
+                try (Stream<String> lines = Files.lines(Paths.get(spec.substring(1)))) {
+                    lines.map(String::trim).filter(line -> !line.isEmpty()).map(Paths::get).forEach(files::add);
+                }
+            } else if (containsGlob(spec)) {
+                files.addAll(expandGlob(spec));
+            } else {
+                Path path = Paths.get(spec);
+                if (Files.isDirectory(path)) {
+                    try (Stream<Path> children = Files.list(path)) {
+                        children.filter(Files::isRegularFile).sorted().forEach(files::add);
+                    }
+                } else {
+                    files.add(path);
+                }
+            }
+        }
+        return files;
+    }
+
+    private static boolean containsGlob(String spec) {
+        for (int i = 0; i < spec.length(); i++) {
+            if (GLOB_CHARS.indexOf(spec.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Path> expandGlob(String spec) throws IOException {
+        String normalized = spec.replace('\\', '/');
+        int firstGlob = 0;
+        while (GLOB_CHARS.indexOf(normalized.charAt(firstGlob)) < 0) {
+            firstGlob++;
+        }
+        int baseEnd = normalized.lastIndexOf('/', firstGlob);
+        Path base = baseEnd < 0 ? Paths.get(".") : Paths.get(baseEnd == 0 ? "/" : normalized.substring(0, baseEnd));
+        String pattern = normalized.substring(baseEnd + 1);
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        // Only "**" crosses directories, any other pattern matches at a fixed depth below the base
+        int depth = pattern.contains("**") ? Integer.MAX_VALUE : (int) pattern.chars().filter(c -> c == '/').count() + 1;
+        try (Stream<Path> tree = Files.walk(base, depth)) {
+            return tree.filter(Files::isRegularFile)
+                    .filter(path -> matcher.matches(base.relativize(path)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Write one result to the sink. A sink failure is rethrown unchecked so the file is counted as failed.
+     */
+    private static void writeResult(ResultSink sink, Result result) {
+        String source = result.file().toString();
+        try {
+            if (result.error() != null) {
+                sink.failure(source, result.error());
+                return;
+            }
+            for (OCSPEntry entry : result.entries()) {
+                sink.accept(source, entry);
+            }
+            if (result.signature() != null) {
+                sink.signature(source, result.signature());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Serializes results to the consumer, buffering out-of-order results when ordering is requested.
+     */
+    private class Emitter {
+        private final Consumer<Result> consumer;
+        private final Semaphore permits;
+        private final Map<Integer, Result> pending = new HashMap<>();
+        private final AtomicInteger failed = new AtomicInteger();
+        private int nextIndex;
+
+        Emitter(Consumer<Result> consumer, Semaphore permits) {
+            this.consumer = consumer;
+            this.permits = permits;
+        }
+
+        synchronized void emit(int index, Result result) {
+            if (!ordered) {
+                deliver(result);
+                return;
+            }
+            pending.put(index, result);
+            Result next;
+            while ((next = pending.remove(nextIndex)) != null) {
+                try {
+                    deliver(next);
+                } finally {
+                    nextIndex++;
+                }
+            }
+        }
+
+        /**
+         * Hand one result to the consumer and return its worker permit.
+         */
+        private void deliver(Result result) {
+            boolean ok = result.error() == null;
+            try {
+                consumer.accept(result);
+            } catch (RuntimeException e) {
+                ok = false;
+                LOG.log(Level.SEVERE, "Failed to emit result for {0}: {1}", new Object[] {result.file(), e.getMessage()});
+            } finally {
+                permits.release();
+            }
+            if (!ok) {
+                failed.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Outcome of decoding one file.
+     * @param file input file.
+     * @param entries one entry per singleResp, empty on failure.
+     * @param signature signature outcome, or null if not verified.
+     * @param error failure cause, or null on success.
+     */
+    public record Result(Path file, List<OCSPEntry> entries, SignatureVerifier.Outcome signature, Exception error) {
+    }
+
+    /**
+     * Totals of a batch run.
+     * @param processed number of files handled.
+     * @param failed number of files that could not be decoded.
+     */
+    public record Summary(int processed, int failed) {
+    }
+}
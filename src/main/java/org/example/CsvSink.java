@@ -0,0 +1,75 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * RFC 4180 CSV with a header row. Failed inputs are written with an empty serial, status ERROR
+ * and the message in the error column. Signature outcomes are written with status SIGNATURE_&lt;outcome&gt;.
+ */
+public class CsvSink extends WriterSink {
+
+    static final String HEADER = "source,serial,status,revocationTime,thisUpdate,issuerKeyHash,error\n";
+
+    private boolean headerWritten;
+
+    public CsvSink(WritableByteChannel channel, boolean closeChannel) {
+        super(channel, closeChannel);
+    }
+
+    @Override
+    protected void writeEntry(Writer out, String source, OCSPEntry entry) throws IOException {
+        writeHeader(out);
+        writeField(out, source);
+        out.write(',');
+        out.write(entry.serial());
+        out.write(',');
+        out.write(entry.status().name());
+        out.write(',');
+        out.write(iso(entry.revocationTime()));
+        out.write(',');
+        out.write(iso(entry.thisUpdate()));
+        out.write(',');
+        writeField(out, entry.issuerKeyHash());
+        out.write(",\n");
+    }
+
+    @Override
+    protected void writeFailure(Writer out, String source, Exception error) throws IOException {
+        writeHeader(out);
+        writeField(out, source);
+        out.write(",,ERROR,,,,");
+        writeField(out, error.getMessage());
+        out.write('\n');
+    }
+
+    @Override
+    protected void writeSignature(Writer out, String source, SignatureVerifier.Outcome outcome) throws IOException {
+        writeHeader(out);
+        writeField(out, source);
+        out.write(",,SIGNATURE_");
+        out.write(outcome.name());
+        out.write(",,,,\n");
+    }
+
+    private void writeHeader(Writer out) throws IOException {
+        if (!headerWritten) {
+            out.write(HEADER);
+            headerWritten = true;
+        }
+    }
+
+    private static void writeField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,213 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.bouncycastle.cert.ocsp.OCSPException;
+
+/**
+ * Keeps one warm JVM that decodes OCSP responses posted to a local HTTP endpoint.
+ * {@code POST /decode} accepts a DER, Base64 or PEM body and answers with the decoded entries as JSON.
+ * Every request runs on its own virtual thread.
+ */
+public class DecodeServer implements Closeable {
+
+    static final String SERVER_FLAG = "--server";
+    static final String PORT_FLAG = "--port";
+    static final int DEFAULT_PORT = 8080;
+    static final String DECODE_PATH = "/decode";
+    static final String HEALTH_PATH = "/health";
+
+    private static final Logger LOG = Logger.getLogger(DecodeServer.class.getName());
+    private static final int SHUTDOWN_GRACE_SECONDS = 5;
+
+    private final OCSPRespReader reader;
+    private final int maxRequestSize;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Phaser inFlight = new Phaser(1);
+    private volatile boolean closing;
+
+    /**
+     * Bind the server, it does not accept requests until {@link #start()}.
+     * @param reader decoder shared by all requests.
+     * @param address local address to bind, port 0 picks a free port.
+     * @param maxRequestSize largest accepted request body in bytes.
+     * @throws IOException if the address cannot be bound.
+     */
+    public DecodeServer(OCSPRespReader reader, InetSocketAddress address, int maxRequestSize) throws IOException {
+        this.reader = reader;
+        this.maxRequestSize = maxRequestSize;
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(DECODE_PATH, this::handleDecode);
+        server.createContext(HEALTH_PATH, exchange -> respond(exchange, 200, "{\"status\":\"UP\"}"));
+    }
+
+    /**
+     * Entry point for {@code --server}. Serves on the loopback interface until the JVM is stopped,
+     * then closes the reader's sink once requests in flight are done. Only returns if the server cannot start.
+     * @param reader decoder shared by all requests.
+     * @param args server options.
+     */
+    static void run(OCSPRespReader reader, List<String> args) {
+        try {
+            String port = OCSPRespReader.removeOption(args, PORT_FLAG);
+            InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                    port == null ? DEFAULT_PORT : Integer.parseInt(port));
+            DecodeServer server = new DecodeServer(reader, address, OCSPRespReader.MAX_OCSP_SIZE);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                try {
+                    reader.getSink().close();
+                } catch (IOException e) {
+                    LOG.log(Level.SEVERE, "Failed to close output: {0}", e.getMessage());
+                }
+                PipelineMetrics.logSummary();
+            }));
+            server.start();
+            LOG.log(Level.INFO, "Decoding OCSP responses on http://{0}:{1}{2}",
+                    new Object[] {address.getHostString(), String.valueOf(server.getPort()), DECODE_PATH});
+            // Serve until the JVM halts. The shutdown hook drains requests and closes the sink, so the
+            // caller must not close it a second time.
+            new CountDownLatch(1).await();
+        } catch (IllegalArgumentException | IOException e) {
+            LOG.log(Level.SEVERE, "Failed to start server: {0}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Reject new requests, wait up to a few seconds for requests in flight, then stop the server.
+     */
+    @Override
+    public void close() {
+        closing = true;
+        try {
+            inFlight.awaitAdvanceInterruptibly(inFlight.arrive(), SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            LOG.log(Level.WARNING, "Stopping with {0} requests in flight", inFlight.getUnarrivedParties());
+        }
+        server.stop(0);
+        executor.close();
+    }
+
+    private void handleDecode(HttpExchange exchange) throws IOException {
+        inFlight.register();
+        try (exchange) {
+            if (closing) {
+                respond(exchange, 503, error("Server is shutting down"));
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().add("Allow", "POST");
+                respond(exchange, 405, error("Only POST is supported"));
+                return;
+            }
+            byte[] body;
+            try {
+                body = readBody(exchange);
+            } catch (NumberFormatException e) {
+                respond(exchange, 400, error("Invalid Content-Length header"));
+                return;
+            }
+            if (body == null) {
+                respond(exchange, 413, error("Request body exceeds " + maxRequestSize + " bytes"));
+                return;
+            }
+            DecodedResponse decoded;
+            try {
+                byte[] der = OCSPInputDecoder.decode(ByteBuffer.wrap(body));
+                decoded = reader.decodeAndVerify(der);
+            } catch (OCSPException | IOException | RuntimeException e) {
+                respond(exchange, 400, error(e.getMessage()));
+                return;
+            }
+            respond(exchange, 200, toJson(decoded));
+        } finally {
+            inFlight.arriveAndDeregister();
+        }
+    }
+
+    /**
+     * Read the request body, reading at most one byte more than the limit.
+     * @return the body, or null if it is too large.
+     * @throws NumberFormatException if the Content-Length header is not a number.
+     */
+    private byte[] readBody(HttpExchange exchange) throws IOException {
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (contentLength != null && Long.parseLong(contentLength) > maxRequestSize) {
+            return null;
+        }
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(maxRequestSize + 1);
+            return body.length > maxRequestSize ? null : body;
+        }
+    }
+
+    private static String toJson(DecodedResponse decoded) throws IOException {
+        StringWriter out = new StringWriter(64 + decoded.entries().size() * 128);
+        out.write("{\"entries\":[");
+        for (int i = 0; i < decoded.entries().size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            NdjsonSink.writeJson(out, null, decoded.entries().get(i));
+        }
+        out.write(']');
+        if (decoded.signature() != null) {
+            out.write(",\"signature\":\"");
+            out.write(decoded.signature().name());
+            out.write('"');
+        }
+        out.write('}');
+        return out.toString();
+    }
+
+    private static String error(String message) throws IOException {
+        StringWriter out = new StringWriter();
+        out.write("{\"error\":");
+        NdjsonSink.writeString(out, String.valueOf(message));
+        out.write('}');
+        return out.toString();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.example;
+
+import java.util.List;
+
+/**
+ * Entries of one response together with its signature outcome.
+ * @param entries one entry per SingleResp.
+ * @param signature signature outcome, or null if the signature was not verified.
+ */
+public record DecodedResponse(List<OCSPEntry> entries, SignatureVerifier.Outcome signature) {
+}
@@ -0,0 +1,65 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores every decoded entry in a {@link RevocationIndex} and optionally passes it on to another sink.
+ * Entries that cannot be indexed are reported through {@link #failure} and still passed on.
+ */
+public class IndexSink implements ResultSink {
+
+    private static final Logger LOG = Logger.getLogger(IndexSink.class.getName());
+
+    private final RevocationIndex index;
+    private final ResultSink delegate;
+
+    /**
+     * @param index index that receives the entries, closed with the sink.
+     * @param delegate sink that also receives every result, null to only index.
+     */
+    public IndexSink(RevocationIndex index, ResultSink delegate) {
+        this.index = index;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void accept(String source, OCSPEntry entry) throws IOException {
+        try {
+            index.put(entry);
+        } catch (IllegalArgumentException e) {
+            failure(source, new IOException("Cannot index serial " + entry.serial() + ": " + e.getMessage(), e));
+        }
+        if (delegate != null) {
+            delegate.accept(source, entry);
+        }
+    }
+
+    @Override
+    public void failure(String source, Exception error) throws IOException {
+        if (delegate != null) {
+            delegate.failure(source, error);
+        } else {
+            LOG.log(Level.SEVERE, source == null ? "Failed to process OCSP response: {1}" : "Failed to process OCSP response {0}: {1}",
+                    new Object[] {source, error.getMessage()});
+        }
+    }
+
+    @Override
+    public void signature(String source, SignatureVerifier.Outcome outcome) throws IOException {
+        if (delegate != null) {
+            delegate.signature(source, outcome);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (index) {
+            if (delegate != null) {
+                delegate.close();
+            }
+        }
+        LOG.log(Level.INFO, "Revocation index holds {0} certificates", index.size());
+    }
+}
@@ -0,0 +1,414 @@
+package org.example;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+
+/**
+ * Walks the DER of an OCSP response directly instead of building the BouncyCastle object graph.
+ * Parsing only locates the list of SingleResponses; entries are decoded one at a time while iterating,
+ * and the signature and certificates are only located when asked for. Extensions are not decoded,
+ * but like BouncyCastle an extensions block holding an empty SEQUENCE is rejected.
+ * The BouncyCastle path in {@link OCSPRespReader#validateAndParse(byte[])} stays the reference.
+ */
+public final class LazyOCSPDecoder implements Iterable<OCSPEntry> {
+
+    private static final int SEQUENCE = 0x30;
+    private static final int ENUMERATED = 0x0A;
+    private static final int OBJECT_IDENTIFIER = 0x06;
+    private static final int OCTET_STRING = 0x04;
+    private static final int INTEGER = 0x02;
+    private static final int BIT_STRING = 0x03;
+    private static final int GENERALIZED_TIME = 0x18;
+    private static final int CONTEXT_0 = 0xA0;
+    private static final int CONTEXT_1 = 0xA1;
+    private static final int CONTEXT_2 = 0xA2;
+    private static final int STATUS_GOOD = 0x80;
+    private static final int STATUS_REVOKED = 0xA1;
+    private static final int STATUS_UNKNOWN = 0x82;
+
+    private static final HexFormat HEX = HexFormat.of().withUpperCase();
+
+    /** DER of id-pkix-ocsp-basic, 1.3.6.1.5.5.7.48.1.1. */
+    private static final byte[] OCSP_BASIC = {0x2B, 0x06, 0x01, 0x05, 0x05, 0x07, 0x30, 0x01, 0x01};
+
+    private final byte[] der;
+    private final int responseStatus;
+    private final int basicEnd;
+    private final int tbsEnd;
+    private final int responsesStart;
+    private final int responsesEnd;
+
+    private LazyOCSPDecoder(byte[] der, int responseStatus, int basicEnd, int tbsEnd, int responsesStart, int responsesEnd) {
+        this.der = der;
+        this.responseStatus = responseStatus;
+        this.basicEnd = basicEnd;
+        this.tbsEnd = tbsEnd;
+        this.responsesStart = responsesStart;
+        this.responsesEnd = responsesEnd;
+    }
+
+    /**
+     * Locate the SingleResponses of a DER encoded OCSP response. Entries are not decoded yet.
+     * @param der DER encoded OCSP response, not copied.
+     * @return decoder over the response.
+     * @throws OCSPException if the outer structure is malformed or not a basic OCSP response.
+     */
+    public static LazyOCSPDecoder parse(byte[] der) throws OCSPException {
+        Cursor c = new Cursor(der, 0, der.length);
+        int end = c.enter(SEQUENCE);
+        c.limit = end;
+        int statusLength = c.expect(ENUMERATED);
+        if (statusLength != 1) {
+            throw malformed("responseStatus is not a single byte");
+        }
+        int status = der[c.pos] & 0xFF;
+        c.pos += statusLength;
+        if (status != OCSPResp.SUCCESSFUL || c.pos == end) {
+            return new LazyOCSPDecoder(der, status, 0, 0, 0, 0);
+        }
+
+        c.enter(CONTEXT_0);
+        c.enter(SEQUENCE);
+        int oidLength = c.expect(OBJECT_IDENTIFIER);
+        if (!c.matches(OCSP_BASIC, oidLength)) {
+            throw malformed("responseType is not id-pkix-ocsp-basic");
+        }
+        c.pos += oidLength;
+        int octetsLength = c.expect(OCTET_STRING);
+        int octetsEnd = c.pos + octetsLength;
+
+        c.limit = octetsEnd;
+        int basicEnd = c.enter(SEQUENCE);
+        c.limit = basicEnd;
+        int tbsEnd = c.enter(SEQUENCE);
+        c.limit = tbsEnd;
+        if (c.peek() == CONTEXT_0) {
+            c.skip();
+        }
+        if (c.peek() != CONTEXT_1 && c.peek() != CONTEXT_2) {
+            throw malformed("missing responderID");
+        }
+        c.skip();
+        c.skipExpected(GENERALIZED_TIME);
+        int responsesEnd = c.enter(SEQUENCE);
+        checkExtensions(new Cursor(der, responsesEnd, tbsEnd));
+        return new LazyOCSPDecoder(der, status, basicEnd, tbsEnd, c.pos, responsesEnd);
+    }
+
+    /**
+     * @return responseStatus of the OCSP response, {@link OCSPResp#SUCCESSFUL} is 0.
+     */
+    public int getResponseStatus() {
+        return responseStatus;
+    }
+
+    /**
+     * @return true if the response is successful and carries a basic response.
+     */
+    public boolean hasPayload() {
+        return responseStatus == OCSPResp.SUCCESSFUL && basicEnd > 0;
+    }
+
+    /**
+     * Iterate over the entries, decoding each SingleResponse when it is reached.
+     * Malformed entries surface as {@link IllegalStateException} with an {@link OCSPException} cause.
+     */
+    @Override
+    public Iterator<OCSPEntry> iterator() {
+        return new EntryIterator();
+    }
+
+    /**
+     * Locate the signature BIT STRING of the basic response.
+     * @return read-only view of the signature bits including the unused-bits byte, or null without payload.
+     * @throws OCSPException if the structure after tbsResponseData is malformed.
+     */
+    public ByteBuffer getSignature() throws OCSPException {
+        if (!hasPayload()) {
+            return null;
+        }
+        Cursor c = new Cursor(der, tbsEnd, basicEnd);
+        c.skipExpected(SEQUENCE);
+        int length = c.expect(BIT_STRING);
+        return ByteBuffer.wrap(der, c.pos, length).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Locate the embedded certificates of the basic response.
+     * @return read-only view of the DER SEQUENCE of certificates, or null if there are none.
+     * @throws OCSPException if the structure after tbsResponseData is malformed.
+     */
+    public ByteBuffer getCertificates() throws OCSPException {
+        if (!hasPayload()) {
+            return null;
+        }
+        Cursor c = new Cursor(der, tbsEnd, basicEnd);
+        c.skipExpected(SEQUENCE);
+        c.skipExpected(BIT_STRING);
+        if (c.pos == basicEnd || c.peek() != CONTEXT_0) {
+            return null;
+        }
+        int end = c.enter(CONTEXT_0);
+        return ByteBuffer.wrap(der, c.pos, end - c.pos).slice().asReadOnlyBuffer();
+    }
+
+    private OCSPEntry decodeEntry(Cursor c) throws OCSPException {
+        int entryEnd = c.enter(SEQUENCE);
+        c.limit = entryEnd;
+        c.enter(SEQUENCE);
+        c.skipExpected(SEQUENCE);
+        c.skipExpected(OCTET_STRING);
+        int keyHashLength = c.expect(OCTET_STRING);
+        String issuerKeyHash = HEX.formatHex(der, c.pos, c.pos + keyHashLength);
+        c.pos += keyHashLength;
+        int serialLength = c.expect(INTEGER);
+        String serial = serialHex(der, c.pos, serialLength);
+        c.pos += serialLength;
+
+        OCSPEntry.Status status;
+        Date revocationTime = null;
+        int tag = c.peek();
+        if (tag == STATUS_GOOD) {
+            status = OCSPEntry.Status.GOOD;
+            c.skip();
+        } else if (tag == STATUS_UNKNOWN) {
+            status = OCSPEntry.Status.UNKNOWN;
+            c.skip();
+        } else if (tag == STATUS_REVOKED) {
+            status = OCSPEntry.Status.REVOKED;
+            int revokedEnd = c.enter(STATUS_REVOKED);
+            int timeLength = c.expect(GENERALIZED_TIME);
+            revocationTime = new Date(generalizedTime(der, c.pos, timeLength));
+            c.pos = revokedEnd;
+        } else {
+            throw malformed("unknown certStatus tag 0x" + Integer.toHexString(tag));
+        }
+
+        int timeLength = c.expect(GENERALIZED_TIME);
+        Date thisUpdate = new Date(generalizedTime(der, c.pos, timeLength));
+        c.pos += timeLength;
+        if (c.pos < entryEnd && c.peek() == CONTEXT_0) {
+            c.skip();
+        }
+        checkExtensions(c);
+        c.pos = entryEnd;
+        return new OCSPEntry(serial, status, revocationTime, thisUpdate, issuerKeyHash);
+    }
+
+    /**
+     * Check an optional {@code [1] Extensions} element at the cursor without decoding it.
+     * @throws OCSPException if it holds an empty SEQUENCE, which BouncyCastle rejects.
+     */
+    private static void checkExtensions(Cursor c) throws OCSPException {
+        if (c.pos < c.limit && c.peek() == CONTEXT_1) {
+            c.limit = c.enter(CONTEXT_1);
+            if (c.expect(SEQUENCE) == 0) {
+                throw malformed("empty extension sequence");
+            }
+        }
+    }
+
+    /**
+     * Format an INTEGER the way {@code BigInteger.toString(16).toUpperCase()} does.
+     */
+    static String serialHex(byte[] der, int offset, int length) throws OCSPException {
+        if (length == 0) {
+            throw malformed("empty serialNumber");
+        }
+        if (der[offset] < 0) {
+            byte[] negative = new byte[length];
+            System.arraycopy(der, offset, negative, 0, length);
+            return new BigInteger(negative).toString(16).toUpperCase(Locale.ROOT);
+        }
+        int start = offset;
+        int end = offset + length;
+        while (start < end - 1 && der[start] == 0) {
+            start++;
+        }
+        char[] hex = new char[(end - start) * 2];
+        for (int i = start, j = 0; i < end; i++) {
+            hex[j++] = Character.toUpperCase(Character.forDigit((der[i] >> 4) & 0xF, 16));
+            hex[j++] = Character.toUpperCase(Character.forDigit(der[i] & 0xF, 16));
+        }
+        int skip = hex[0] == '0' && hex.length > 1 ? 1 : 0;
+        return new String(hex, skip, hex.length - skip);
+    }
+
+    /**
+     * Parse a GeneralizedTime of the form {@code YYYYMMDDHHMMSS[.f*]Z} into epoch millis.
+     */
+    static long generalizedTime(byte[] der, int offset, int length) throws OCSPException {
+        if (length < 15 || der[offset + length - 1] != 'Z') {
+            throw malformed("unsupported GeneralizedTime");
+        }
+        int year = digits(der, offset, 4);
+        int month = digits(der, offset + 4, 2);
+        int day = digits(der, offset + 6, 2);
+        int hour = digits(der, offset + 8, 2);
+        int minute = digits(der, offset + 10, 2);
+        int second = digits(der, offset + 12, 2);
+        int millis = 0;
+        int fractionEnd = offset + length - 1;
+        if (offset + 14 < fractionEnd) {
+            if (der[offset + 14] != '.') {
+                throw malformed("unsupported GeneralizedTime");
+            }
+            int scale = 100;
+            for (int i = offset + 15; i < fractionEnd; i++) {
+                millis += digits(der, i, 1) * scale;
+                scale /= 10;
+            }
+        }
+        long days = daysFromCivil(year, month, day);
+        return ((days * 24 + hour) * 60 + minute) * 60_000L + second * 1000L + millis;
+    }
+
+    private static int digits(byte[] der, int offset, int count) throws OCSPException {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = der[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw malformed("unsupported GeneralizedTime");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Days since 1970-01-01 of a proleptic Gregorian date.
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    private static OCSPException malformed(String reason) {
+        return new OCSPException("Malformed OCSP response: " + reason);
+    }
+
+    private class EntryIterator implements Iterator<OCSPEntry> {
+        private int pos = responsesStart;
+
+        @Override
+        public boolean hasNext() {
+            return pos < responsesEnd;
+        }
+
+        @Override
+        public OCSPEntry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long start = PipelineMetrics.start();
+            Cursor c = new Cursor(der, pos, responsesEnd);
+            try {
+                OCSPEntry entry = decodeEntry(c);
+                pos = c.pos;
+                PipelineMetrics.entry(start, entry.status());
+                return entry;
+            } catch (OCSPException e) {
+                pos = responsesEnd;
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Position within a DER buffer. {@code limit} bounds the enclosing element.
+     */
+    private static final class Cursor {
+        private final byte[] der;
+        private int pos;
+        private int limit;
+
+        Cursor(byte[] der, int pos, int limit) {
+            this.der = der;
+            this.pos = pos;
+            this.limit = limit;
+        }
+
+        int peek() throws OCSPException {
+            if (pos >= limit) {
+                throw malformed("unexpected end of data");
+            }
+            return der[pos] & 0xFF;
+        }
+
+        /** Read the header of an element with the given tag and return its content length. */
+        int expect(int tag) throws OCSPException {
+            int actual = peek();
+            if (actual != tag) {
+                throw malformed("expected tag 0x" + Integer.toHexString(tag) + " but found 0x" + Integer.toHexString(actual));
+            }
+            pos++;
+            return readLength();
+        }
+
+        /** Move into a constructed element and return the offset of its end. */
+        int enter(int tag) throws OCSPException {
+            int length = expect(tag);
+            return pos + length;
+        }
+
+        void skipExpected(int tag) throws OCSPException {
+            int length = expect(tag);
+            pos += length;
+        }
+
+        void skip() throws OCSPException {
+            peek();
+            pos++;
+            int length = readLength();
+            pos += length;
+        }
+
+        boolean matches(byte[] expected, int length) {
+            if (length != expected.length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (der[pos + i] != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int readLength() throws OCSPException {
+            if (pos >= limit) {
+                throw malformed("unexpected end of data");
+            }
+            int first = der[pos++] & 0xFF;
+            int length;
+            if (first < 0x80) {
+                length = first;
+            } else {
+                int count = first & 0x7F;
+                if (count == 0 || count > 4 || pos + count > limit) {
+                    throw malformed("unsupported length encoding");
+                }
+                length = 0;
+                for (int i = 0; i < count; i++) {
+                    length = (length << 8) | (der[pos++] & 0xFF);
+                }
+            }
+            if (length < 0 || length > limit - pos) {
+                throw malformed("length exceeds enclosing element");
+            }
+            return length;
+        }
+    }
+}
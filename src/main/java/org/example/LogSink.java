@@ -0,0 +1,51 @@
+package org.example;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Logs every entry through java.util.logging in the reader's original message format.
+ */
+public class LogSink implements ResultSink {
+
+    private static final Logger LOG = Logger.getLogger(OCSPRespReader.class.getName());
+
+    private final OCSPRespReader reader;
+
+    public LogSink(OCSPRespReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public void accept(String source, OCSPEntry entry) {
+        if (!LOG.isLoggable(Level.INFO)) {
+            return;
+        }
+        long start = PipelineMetrics.start();
+        String status = entry.status() == OCSPEntry.Status.REVOKED
+                ? "REVOKED at " + entry.revocationTime()
+                : entry.status().name();
+        String msg = reader.buildOutputMsg(entry.serial(), status, entry.thisUpdate());
+        if (entry.issuerKeyHash() != null) {
+            msg += "\nIssuer Key Hash: " + entry.issuerKeyHash();
+        }
+        LOG.info(source == null ? msg : source + ": " + msg);
+        PipelineMetrics.stage(PipelineMetrics.Stage.OUTPUT, start, 0);
+    }
+
+    @Override
+    public void failure(String source, Exception error) {
+        LOG.log(Level.SEVERE, source == null ? "Failed to process OCSP response: {1}" : "Failed to process OCSP response {0}: {1}",
+                new Object[] {source, error.getMessage()});
+    }
+
+    @Override
+    public void signature(String source, SignatureVerifier.Outcome outcome) {
+        Level level = outcome == SignatureVerifier.Outcome.VALID ? Level.INFO : Level.WARNING;
+        LOG.log(level, source == null ? "Signature: {0}" : source + ": Signature: {0}", outcome);
+    }
+
+    @Override
+    public void close() {
+    }
+}
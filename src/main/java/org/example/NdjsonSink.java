@@ -0,0 +1,105 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * One JSON object per line. Entries carry serial, status, revocationTime, thisUpdate and issuerKeyHash,
+ * failures carry an error message and verified inputs a signature outcome instead.
+ */
+public class NdjsonSink extends WriterSink {
+
+    public NdjsonSink(WritableByteChannel channel, boolean closeChannel) {
+        super(channel, closeChannel);
+    }
+
+    @Override
+    protected void writeEntry(Writer out, String source, OCSPEntry entry) throws IOException {
+        writeJson(out, source, entry);
+        out.write('\n');
+    }
+
+    @Override
+    protected void writeFailure(Writer out, String source, Exception error) throws IOException {
+        out.write('{');
+        if (source != null) {
+            out.write("\"source\":");
+            writeString(out, source);
+            out.write(',');
+        }
+        out.write("\"error\":");
+        writeString(out, String.valueOf(error.getMessage()));
+        out.write("}\n");
+    }
+
+    @Override
+    protected void writeSignature(Writer out, String source, SignatureVerifier.Outcome outcome) throws IOException {
+        out.write('{');
+        if (source != null) {
+            out.write("\"source\":");
+            writeString(out, source);
+            out.write(',');
+        }
+        out.write("\"signature\":\"");
+        out.write(outcome.name());
+        out.write("\"}\n");
+    }
+
+    /**
+     * Write an entry as a single JSON object without a trailing newline.
+     * @param out destination.
+     * @param source file or stream the entry came from, omitted when null.
+     * @param entry decoded entry.
+     * @throws IOException if writing fails.
+     */
+    static void writeJson(Writer out, String source, OCSPEntry entry) throws IOException {
+        out.write('{');
+        if (source != null) {
+            out.write("\"source\":");
+            writeString(out, source);
+            out.write(',');
+        }
+        out.write("\"serial\":\"");
+        out.write(entry.serial());
+        out.write("\",\"status\":\"");
+        out.write(entry.status().name());
+        out.write('"');
+        if (entry.revocationTime() != null) {
+            out.write(",\"revocationTime\":\"");
+            out.write(iso(entry.revocationTime()));
+            out.write('"');
+        }
+        out.write(",\"thisUpdate\":\"");
+        out.write(iso(entry.thisUpdate()));
+        out.write('"');
+        if (entry.issuerKeyHash() != null) {
+            out.write(",\"issuerKeyHash\":\"");
+            out.write(entry.issuerKeyHash());
+            out.write('"');
+        }
+        out.write('}');
+    }
+
+    static void writeString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+}
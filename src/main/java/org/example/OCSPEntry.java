@@ -0,0 +1,28 @@
+package org.example;
+
+import java.util.Date;
+
+/**
+ * The fields of a SingleResp that the reader reports.
+ * @param serial certificate serial number as upper case hex.
+ * @param status certificate status.
+ * @param revocationTime revocation time, or null unless the status is REVOKED.
+ * @param thisUpdate thisUpdate of the SingleResp.
+ * @param issuerKeyHash issuerKeyHash of the CertID as upper case hex, null if unknown.
+ */
+public record OCSPEntry(String serial, Status status, Date revocationTime, Date thisUpdate, String issuerKeyHash) {
+
+    /**
+     * Creates an entry without an issuer key hash.
+     */
+    public OCSPEntry(String serial, Status status, Date revocationTime, Date thisUpdate) {
+        this(serial, status, revocationTime, thisUpdate, null);
+    }
+
+    /**
+     * Certificate status of an entry.
+     */
+    public enum Status {
+        GOOD, REVOKED, UNKNOWN
+    }
+}
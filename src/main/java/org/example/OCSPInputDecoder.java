@@ -0,0 +1,212 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Turns raw input (DER, Base64 or PEM) into DER bytes without intermediate Strings or regex.
+ * Encoding detection is a single pass over the bytes and Base64 is decoded straight into
+ * an array of the exact DER size, so memory per input stays close to the DER size.
+ */
+public final class OCSPInputDecoder {
+
+    /** Files at least this large are memory mapped instead of copied onto the heap. */
+    static final int MAP_THRESHOLD = 64 * 1024;
+
+    private static final byte[] PEM_BEGIN = "-----BEGIN OCSP RESPONSE-----".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PEM_END = "-----END OCSP RESPONSE-----".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PEM_PREFIX = "-----BEGIN ".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte INVALID = -1;
+    private static final byte WHITESPACE = -2;
+    private static final byte PADDING = -3;
+    private static final byte[] BASE64_VALUES = new byte[256];
+
+    static {
+        Arrays.fill(BASE64_VALUES, INVALID);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_VALUES[alphabet.charAt(i)] = (byte) i;
+        }
+        for (char c : new char[] {' ', '\t', '\n', '\r', '\f', 0x0B}) {
+            BASE64_VALUES[c] = WHITESPACE;
+        }
+        BASE64_VALUES['='] = PADDING;
+    }
+
+    /**
+     * Input encodings understood by the decoder.
+     */
+    public enum Encoding {
+        DER, BASE64, PEM
+    }
+
+    private OCSPInputDecoder() {
+    }
+
+    /**
+     * Read a file and return its DER content, mapping large files instead of reading them onto the heap.
+     * @param path input file.
+     * @param size file size in bytes, already checked against the size limit.
+     * @return DER bytes of the response.
+     * @throws IOException if the file cannot be read or the content is not valid Base64/PEM.
+     */
+    public static byte[] read(Path path, long size) throws IOException {
+        long start = PipelineMetrics.start();
+        if (size < MAP_THRESHOLD) {
+            byte[] data = Files.readAllBytes(path);
+            PipelineMetrics.stage(PipelineMetrics.Stage.READ, start, data.length);
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            Encoding encoding = detect(buffer);
+            return encoding == Encoding.DER ? data : decode(buffer, encoding);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            // Fault the pages in here, so the disk read counts as READ rather than DETECT or BASE64
+            mapped.load();
+            PipelineMetrics.stage(PipelineMetrics.Stage.READ, start, size);
+            return decode(mapped);
+        }
+    }
+
+    /**
+     * Decode the remaining bytes of the buffer into DER. The buffer position is not changed.
+     * @param input DER, Base64 or PEM content.
+     * @return DER bytes of the response.
+     * @throws IOException if the content is not valid Base64/PEM.
+     */
+    public static byte[] decode(ByteBuffer input) throws IOException {
+        return decode(input, detect(input));
+    }
+
+    private static byte[] decode(ByteBuffer input, Encoding encoding) throws IOException {
+        return switch (encoding) {
+            case DER -> {
+                byte[] der = new byte[input.remaining()];
+                input.get(input.position(), der);
+                yield der;
+            }
+            case BASE64 -> decodeBase64(input, input.position(), input.limit());
+            case PEM -> decodePem(input);
+        };
+    }
+
+    /**
+     * Detect the encoding of the remaining bytes in one scan. Content that only consists of
+     * Base64 characters and whitespace is Base64, content starting with a PEM header is PEM
+     * and anything else is treated as DER.
+     * @param input content to inspect, the position is not changed.
+     * @return detected encoding.
+     */
+    public static Encoding detect(ByteBuffer input) {
+        long start = PipelineMetrics.start();
+        Encoding encoding = scan(input);
+        PipelineMetrics.stage(PipelineMetrics.Stage.DETECT, start, input.remaining());
+        return encoding;
+    }
+
+    private static Encoding scan(ByteBuffer input) {
+        int start = input.position();
+        int limit = input.limit();
+        int first = skipWhitespace(input, start, limit);
+        if (startsWith(input, first, limit, PEM_PREFIX)) {
+            return Encoding.PEM;
+        }
+        if (first == limit) {
+            return Encoding.DER;
+        }
+        for (int i = first; i < limit; i++) {
+            if (BASE64_VALUES[input.get(i) & 0xFF] == INVALID) {
+                return Encoding.DER;
+            }
+        }
+        return Encoding.BASE64;
+    }
+
+    private static byte[] decodePem(ByteBuffer input) throws IOException {
+        int limit = input.limit();
+        int begin = skipWhitespace(input, input.position(), limit);
+        if (!startsWith(input, begin, limit, PEM_BEGIN)) {
+            throw new IOException("Unsupported PEM content, expected " + new String(PEM_BEGIN, StandardCharsets.US_ASCII));
+        }
+        int bodyStart = begin + PEM_BEGIN.length;
+        for (int i = bodyStart; i < limit; i++) {
+            if (input.get(i) == '-' && startsWith(input, i, limit, PEM_END)) {
+                return decodeBase64(input, bodyStart, i);
+            }
+        }
+        throw new IOException("PEM content is missing " + new String(PEM_END, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decode Base64 between {@code from} and {@code to}, ignoring whitespace. The first pass sizes
+     * the output exactly, the second pass writes straight into it.
+     */
+    private static byte[] decodeBase64(ByteBuffer input, int from, int to) throws IOException {
+        long start = PipelineMetrics.start();
+        int symbols = 0;
+        int padding = 0;
+        for (int i = from; i < to; i++) {
+            byte value = BASE64_VALUES[input.get(i) & 0xFF];
+            if (value >= 0) {
+                if (padding > 0) {
+                    throw new IOException("Invalid Base64 content: data after padding");
+                }
+                symbols++;
+            } else if (value == PADDING) {
+                padding++;
+            } else if (value == INVALID) {
+                throw new IOException("Invalid Base64 content at offset " + (i - from));
+            }
+        }
+        if (symbols % 4 == 1 || padding > 2 || (padding > 0 && (symbols + padding) % 4 != 0)) {
+            throw new IOException("Invalid Base64 content: bad length or padding");
+        }
+
+        byte[] der = new byte[symbols / 4 * 3 + Math.max(0, symbols % 4 - 1)];
+        int bits = 0;
+        int bitCount = 0;
+        int out = 0;
+        for (int i = from; i < to && out < der.length; i++) {
+            byte value = BASE64_VALUES[input.get(i) & 0xFF];
+            if (value < 0) {
+                continue;
+            }
+            bits = (bits << 6) | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                der[out++] = (byte) (bits >> bitCount);
+            }
+        }
+        PipelineMetrics.stage(PipelineMetrics.Stage.BASE64, start, to - from);
+        return der;
+    }
+
+    private static int skipWhitespace(ByteBuffer input, int from, int limit) {
+        int i = from;
+        while (i < limit && BASE64_VALUES[input.get(i) & 0xFF] == WHITESPACE) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean startsWith(ByteBuffer input, int from, int limit, byte[] prefix) {
+        if (limit - from < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (input.get(from + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
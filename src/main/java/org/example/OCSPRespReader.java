@@ -1,12 +1,21 @@
 package org.example;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
 import java.security.Security;
-import java.util.Base64;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -25,34 +34,190 @@ public class OCSPRespReader {
     }
 
     private static final Logger LOG = Logger.getLogger(OCSPRespReader.class.getName());
-    private static final int MAX_OCSP_SIZE = 1024 * 1024; // 1MB limit
+    static final int MAX_OCSP_SIZE = 16 * 1024 * 1024; // 16MB limit
+
+    static final String LAZY_FLAG = "--lazy";
+    static final String VERIFY_FLAG = "--verify";
+    static final String TRUSTSTORE_FLAG = "--truststore";
+    static final String TRUSTSTORE_PASSWORD_FLAG = "--truststore-password";
+
+    private static final HexFormat HEX = HexFormat.of().withUpperCase();
+    private static final ExecutorService VERIFY_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private volatile ResultSink sink;
+    private final boolean lazy;
+    private final SignatureVerifier verifier;
+
+    /**
+     * Creates a reader that logs every entry.
+     */
+    public OCSPRespReader() {
+        this(null, false, null);
+    }
+
+    /**
+     * Creates a reader that hands every decoded entry to the sink.
+     * @param sink destination of decoded entries.
+     */
+    public OCSPRespReader(ResultSink sink) {
+        this(sink, false, null);
+    }
+
+    /**
+     * Creates a reader that hands every decoded entry to the sink.
+     * @param sink destination of decoded entries, null to log them.
+     * @param lazy decode with {@link LazyOCSPDecoder} instead of building the BouncyCastle object graph.
+     */
+    public OCSPRespReader(ResultSink sink, boolean lazy) {
+        this(sink, lazy, null);
+    }
+
+    /**
+     * Creates a reader that hands every decoded entry to the sink and optionally verifies signatures.
+     * @param sink destination of decoded entries, null to log them.
+     * @param lazy decode with {@link LazyOCSPDecoder} instead of building the BouncyCastle object graph.
+     * @param verifier verifies response signatures alongside decoding, null to skip verification.
+     */
+    public OCSPRespReader(ResultSink sink, boolean lazy, SignatureVerifier verifier) {
+        this.sink = sink;
+        this.lazy = lazy;
+        this.verifier = verifier;
+    }
 
     public static void main(String[] args) {
         if (args.length == 0) {
             printUsage();
         }
-        OCSPRespReader reader = new OCSPRespReader();
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        OutputFormat format;
         try {
-        byte[] ocspResponseBytes = (args.length == 1) ?
-                reader.readOCSPResponse(args[0]) :
-                new byte[] {48, -126, 3, -71, 10, 1, 0, -96, -126, 3, -78, 48, -126, 3, -82, 6, 9, 43, 6, 1, 5, 5, 7, 48, 1, 1, 4, -126, 3, -97, 48, -126, 3, -101, 48, -127, -97, -94, 22, 4, 20, -23, -33, 123, 42, -87, 105, -5, -97, -72, 93, -53, -117, -34, 58, 89, 103, -14, -9, -32, 41, 24, 15, 50, 48, 49, 54, 48, 53, 51, 48, 48, 54, 53, 50, 53, 55, 90, 48, 88, 48, 86, 48, 65, 48, 9, 6, 5, 43, 14, 3, 2, 26, 5, 0, 4, 20, -96, 18, -27, 62, -72, -39, 106, -4, -19, -38, 37, 96, 1, 89, 111, 33, -84, -11, -65, 88, 4, 20, -23, -33, 123, 42, -87, 105, -5, -97, -72, 93, -53, -117, -34, 58, 89, 103, -14, -9, -32, 41, 2, 8, 117, -42, 71, 12, 111, 23, -17, -47, -128, 0, 24, 15, 50, 48, 49, 54, 48, 53, 51, 48, 48, 54, 53, 50, 53, 55, 90, -95, 26, 48, 24, 48, 22, 6, 9, 43, 6, 1, 5, 5, 7, 48, 1, 2, 4, 9, 49, 50, 51, 52, 53, 54, 55, 56, 57, 48, 13, 6, 9, 42, -122, 72, -122, -9, 13, 1, 1, 5, 5, 0, 3, -127, -127, 0, -127, -30, 102, 85, 109, 67, 84, -73, -37, 126, -94, 107, 125, -81, 117, -123, -53, -97, -26, 122, -126, 14, -26, -107, -121, 60, -109, -85, -59, -22, -96, -96, 39, 76, 119, 105, -50, -23, -56, -51, -66, -64, 25, 110, 50, 67, 89, -111, -77, -50, -75, -81, 120, 51, 60, 25, -126, -91, 43, -75, 94, -77, 32, -76, -22, -68, -29, 39, 70, 11, 48, 32, -107, -63, -49, 11, -68, 52, -64, -7, -123, 107, 13, -100, -111, -73, -102, -9, 8, 45, 51, 84, -105, -2, -75, -16, 42, -32, 107, 99, -71, 16, 63, 110, -92, -94, -77, 35, 71, 41, -18, 92, -81, 51, 124, 73, 75, 29, -24, -53, -87, 88, -22, -121, 115, 33, 87, -1, -96, -126, 2, 98, 48, -126, 2, 94, 48, -126, 2, 90, 48, -126, 1, -61, -96, 3, 2, 1, 2, 2, 8, 117, -42, 71, 12, 111, 23, -17, -47, 48, 13, 6, 9, 42, -122, 72, -122, -9, 13, 1, 1, 11, 5, 0, 48, 52, 49, 13, 48, 11, 6, 3, 85, 4, 5, 19, 4, 49, 50, 51, 52, 49, 35, 48, 33, 6, 3, 85, 4, 3, 12, 26, 73, 110, 116, 101, 103, 114, 97, 116, 101, 100, 79, 99, 115, 112, 82, 101, 115, 112, 111, 110, 115, 101, 84, 101, 115, 116, 48, 30, 23, 13, 49, 54, 48, 53, 51, 48, 48, 54, 52, 50, 53, 54, 90, 23, 13, 49, 54, 48, 54, 48, 57, 48, 54, 53, 50, 53, 54, 90, 48, 52, 49, 13, 48, 11, 6, 3, 85, 4, 5, 19, 4, 49, 50, 51, 52, 49, 35, 48, 33, 6, 3, 85, 4, 3, 12, 26, 73, 110, 116, 101, 103, 114, 97, 116, 101, 100, 79, 99, 115, 112, 82, 101, 115, 112, 111, 110, 115, 101, 84, 101, 115, 116, 48, -127, -97, 48, 13, 6, 9, 42, -122, 72, -122, -9, 13, 1, 1, 1, 5, 0, 3, -127, -115, 0, 48, -127, -119, 2, -127, -127, 0, -72, -35, 112, 1, 58, 82, 75, 19, 28, -58, 72, 107, -126, 110, -76, 37, 29, -59, -101, -82, 125, -20, 23, 122, 49, 22, 3, -106, -53, -26, 36, -106, -47, 46, 37, -98, -89, -28, -2, -118, -98, 77, 96, 42, 23, 110, -119, -74, -3, 33, -111, -9, 61, 12, 20, 125, -15, -2, 9, 50, -125, -56, -34, -114, 80, 84, -54, 111, -86, 74, -65, -45, 30, 110, 127, 64, 118, -59, 115, 36, 73, -55, 99, 94, -44, 20, -84, 28, -33, -20, -115, 25, -57, 107, 72, 29, 35, 109, 108, -98, -69, -102, 6, 46, 67, 81, -103, 15, 105, -9, 28, 83, 27, 79, 112, -2, -28, 72, -128, -40, 4, 69, -4, 14, 83, 24, 16, -75, 2, 3, 1, 0, 1, -93, 117, 48, 115, 48, 15, 6, 3, 85, 29, 19, 1, 1, -1, 4, 5, 48, 3, 1, 1, -1, 48, 14, 6, 3, 85, 29, 15, 1, 1, -1, 4, 4, 3, 2, 1, -122, 48, 29, 6, 3, 85, 29, 14, 4, 22, 4, 20, -23, -33, 123, 42, -87, 105, -5, -97, -72, 93, -53, -117, -34, 58, 89, 103, -14, -9, -32, 41, 48, 31, 6, 3, 85, 29, 35, 4, 24, 48, 22, -128, 20, -23, -33, 123, 42, -87, 105, -5, -97, -72, 93, -53, -117, -34, 58, 89, 103, -14, -9, -32, 41, 48, 16, 6, 3, 85, 29, 32, 4, 9, 48, 7, 48, 5, 6, 3, 41, 1, 1, 48, 13, 6, 9, 42, -122, 72, -122, -9, 13, 1, 1, 11, 5, 0, 3, -127, -127, 0, 23, 38, -109, 105, 76, -49, 21, -77, -21, -16, -117, -110, 41, -54, -87, -70, -52, 100, 4, 9, 103, -1, 74, 64, -126, -15, -24, 65, -50, 107, -17, -37, -67, -101, 98, -62, 60, 64, -26, 56, 92, 119, 45, -40, 97, -14, -55, -56, -32, -34, 41, 62, 1, 82, 29, -64, 78, -121, 102, 27, -7, 61, 18, 32, 122, 9, -91, -20, 99, 28, 87, 0, -25, -14, -2, 50, -53, 48, 49, 96, -74, -61, 54, -17, 36, -66, -36, -66, 115, -19, 78, -92, 10, -12, -127, -81, -84, -43, -53, 41, -81, -62, 45, -1, -13, -38, 2, 17, 103, 54, -94, 38, -66, -56, -29, -28, -29, -30, 5, 58, 127, -62, 79, -98, -76, -80, 27, -93};
-
-        OCSPResp ocspResp = reader.validateAndParse(ocspResponseBytes);
-        if (ocspResp != null) {
-            BasicOCSPResp basicResp = (BasicOCSPResp) ocspResp.getResponseObject();
-            for (SingleResp singleResp : basicResp.getResponses()) {
-                reader.decodeSingleResp(singleResp);
+            format = OutputFormat.extract(arguments);
+        } catch (IllegalArgumentException e) {
+            LOG.log(Level.SEVERE, "Invalid output format: {0}", e.getMessage());
+            printUsage();
+            return;
+        }
+        boolean lazy = arguments.remove(LAZY_FLAG);
+        SignatureVerifier verifier;
+        try {
+            verifier = createVerifier(arguments);
+        } catch (IllegalArgumentException | IOException | GeneralSecurityException e) {
+            LOG.log(Level.SEVERE, "Failed to load trust store: {0}", e.getMessage());
+            return;
+        }
+        ResultSink output = format == null ? null : format.openStdout();
+        try {
+            String indexPath = removeOption(arguments, RevocationIndex.INDEX_FLAG);
+            if (indexPath != null && !arguments.isEmpty() && DecodeServer.SERVER_FLAG.equals(arguments.get(0))) {
+                LOG.log(Level.SEVERE, "{0} cannot be used with {1}: the server answers requests without writing to the output",
+                        new Object[] {RevocationIndex.INDEX_FLAG, DecodeServer.SERVER_FLAG});
+                return;
+            }
+            if (indexPath != null && arguments.size() > 1 && RevocationIndex.LOOKUP_FLAG.equals(arguments.get(0))
+                    && sameFile(indexPath, arguments.get(1))) {
+                LOG.log(Level.SEVERE, "{0} and {1} cannot use the same file: {2}",
+                        new Object[] {RevocationIndex.INDEX_FLAG, RevocationIndex.LOOKUP_FLAG, indexPath});
+                return;
             }
+            if (indexPath != null) {
+                output = new IndexSink(RevocationIndex.open(Paths.get(indexPath)), output);
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            LOG.log(Level.SEVERE, "Failed to open revocation index: {0}", e.getMessage());
+            return;
         }
+        PipelineMetrics.registerMBean();
+        OCSPRespReader reader = new OCSPRespReader(output, lazy, verifier);
+        try {
+            if (!arguments.isEmpty() && BatchProcessor.BATCH_FLAG.equals(arguments.get(0))) {
+                BatchProcessor.run(reader, arguments.subList(1, arguments.size()));
+                return;
+            }
+            if (!arguments.isEmpty() && StreamIngestor.STREAM_FLAG.equals(arguments.get(0))) {
+                StreamIngestor.run(reader, arguments.subList(1, arguments.size()));
+                return;
+            }
+            if (!arguments.isEmpty() && RevocationIndex.LOOKUP_FLAG.equals(arguments.get(0))) {
+                RevocationIndex.runLookup(reader, arguments.subList(1, arguments.size()));
+                return;
+            }
+            if (!arguments.isEmpty() && DecodeServer.SERVER_FLAG.equals(arguments.get(0))) {
+                DecodeServer.run(reader, arguments.subList(1, arguments.size()));
+                return;
+            }
+            byte[] ocspResponseBytes = (arguments.size() == 1) ?
+                    reader.readOCSPResponse(arguments.get(0)) :
+                    new byte[] {48, -126, 3, -71, 10, 1, 0, -96, -126, 3, -78, 48, -126, 3, -82, 6, 9, 43, 6, 1, 5, 5, 7, 48, 1, 1, 4, -126, 3, -97, 48, -126, 3, -101, 48, -127, -97, -94, 22, 4, 20, -23, -33, 123, 42, -87, 105, -5, -97, -72, 93, -53, -117, -34, 58, 89, 103, -14, -9, -32, 41, 24, 15, 50, 48, 49, 54, 48, 53, 51, 48, 48, 54, 53, 50, 53, 55, 90, 48, 88, 48, 86, 48, 65, 48, 9, 6, 5, 43, 14, 3, 2, 26, 5, 0, 4, 20, -96, 18, -27, 62, -72, -39, 106, -4, -19, -38, 37, 96, 1, 89, 111, 33, -84, -11, -65, 88, 4, 20, -23, -33, 123, 42, -87, 105, -5, -97, -72, 93, -53, -117, -34, 58, 89, 103, -14, -9, -32, 41, 2, 8, 117, -42, 71, 12, 111, 23, -17, -47, -128, 0, 24, 15, 50, 48, 49, 54, 48, 53, 51, 48, 48, 54, 53, 50, 53, 55, 90, -95, 26, 48, 24, 48, 22, 6, 9, 43, 6, 1, 5, 5, 7, 48, 1, 2, 4, 9, 49, 50, 51, 52, 53, 54, 55, 56, 57, 48, 13, 6, 9, 42, -122, 72, -122, -9, 13, 1, 1, 5, 5, 0, 3, -127, -127, 0, -127, -30, 102, 85, 109, 67, 84, -73, -37, 126, -94, 107, 125, -81, 117, -123, -53, -97, -26, 122, -126, 14, -26, -107, -121, 60, -109, -85, -59, -22, -96, -96, 39, 76, 119, 105, -50, -23, -56, -51, -66, -64, 25, 110, 50, 67, 89, -111, -77, -50, -75, -81, 120, 51, 60, 25, -126, -91, 43, -75, 94, -77, 32, -76, -22, -68, -29, 39, 70, 11, 48, 32, -107, -63, -49, 11, -68, 52, -64, -7, -123, 107, 13, -100, -111, -73, -102, -9, 8, 45, 51, 84, -105, -2, -75, -16, 42, -32, 107, 99, -71, 16, 63, 110, -92, -94, -77, 35, 71, 41, -18, 92, -81, 51, 124, 73, 75, 29, -24, -53, -87, 88, -22, -121, 115, 33, 87, -1, -96, -126, 2, 98, 48, -126, 2, 94, 48, -126, 2, 90, 48, -126, 1, -61, -96, 3, 2, 1, 2, 2, 8, 117, -42, 71, 12, 111, 23, -17, -47, 48, 13, 6, 9, 42, -122, 72, -122, -9, 13, 1, 1, 11, 5, 0, 48, 52, 49, 13, 48, 11, 6, 3, 85, 4, 5, 19, 4, 49, 50, 51, 52, 49, 35, 48, 33, 6, 3, 85, 4, 3, 12, 26, 73, 110, 116, 101, 103, 114, 97, 116, 101, 100, 79, 99, 115, 112, 82, 101, 115, 112, 111, 110, 115, 101, 84, 101, 115, 116, 48, 30, 23, 13, 49, 54, 48, 53, 51, 48, 48, 54, 52, 50, 53, 54, 90, 23, 13, 49, 54, 48, 54, 48, 57, 48, 54, 53, 50, 53, 54, 90, 48, 52, 49, 13, 48, 11, 6, 3, 85, 4, 5, 19, 4, 49, 50, 51, 52, 49, 35, 48, 33, 6, 3, 85, 4, 3, 12, 26, 73, 110, 116, 101, 103, 114, 97, 116, 101, 100, 79, 99, 115, 112, 82, 101, 115, 112, 111, 110, 115, 101, 84, 101, 115, 116, 48, -127, -97, 48, 13, 6, 9, 42, -122, 72, -122, -9, 13, 1, 1, 1, 5, 0, 3, -127, -115, 0, 48, -127, -119, 2, -127, -127, 0, -72, -35, 112, 1, 58, 82, 75, 19, 28, -58, 72, 107, -126, 110, -76, 37, 29, -59, -101, -82, 125, -20, 23, 122, 49, 22, 3, -106, -53, -26, 36, -106, -47, 46, 37, -98, -89, -28, -2, -118, -98, 77, 96, 42, 23, 110, -119, -74, -3, 33, -111, -9, 61, 12, 20, 125, -15, -2, 9, 50, -125, -56, -34, -114, 80, 84, -54, 111, -86, 74, -65, -45, 30, 110, 127, 64, 118, -59, 115, 36, 73, -55, 99, 94, -44, 20, -84, 28, -33, -20, -115, 25, -57, 107, 72, 29, 35, 109, 108, -98, -69, -102, 6, 46, 67, 81, -103, 15, 105, -9, 28, 83, 27, 79, 112, -2, -28, 72, -128, -40, 4, 69, -4, 14, 83, 24, 16, -75, 2, 3, 1, 0, 1, -93, 117, 48, 115, 48, 15, 6, 3, 85, 29, 19, 1, 1, -1, 4, 5, 48, 3, 1, 1, -1, 48, 14, 6, 3, 85, 29, 15, 1, 1, -1, 4, 4, 3, 2, 1, -122, 48, 29, 6, 3, 85, 29, 14, 4, 22, 4, 20, -23, -33, 123, 42, -87, 105, -5, -97, -72, 93, -53, -117, -34, 58, 89, 103, -14, -9, -32, 41, 48, 31, 6, 3, 85, 29, 35, 4, 24, 48, 22, -128, 20, -23, -33, 123, 42, -87, 105, -5, -97, -72, 93, -53, -117, -34, 58, 89, 103, -14, -9, -32, 41, 48, 16, 6, 3, 85, 29, 32, 4, 9, 48, 7, 48, 5, 6, 3, 41, 1, 1, 48, 13, 6, 9, 42, -122, 72, -122, -9, 13, 1, 1, 11, 5, 0, 3, -127, -127, 0, 23, 38, -109, 105, 76, -49, 21, -77, -21, -16, -117, -110, 41, -54, -87, -70, -52, 100, 4, 9, 103, -1, 74, 64, -126, -15, -24, 65, -50, 107, -17, -37, -67, -101, 98, -62, 60, 64, -26, 56, 92, 119, 45, -40, 97, -14, -55, -56, -32, -34, 41, 62, 1, 82, 29, -64, 78, -121, 102, 27, -7, 61, 18, 32, 122, 9, -91, -20, 99, 28, 87, 0, -25, -14, -2, 50, -53, 48, 49, 96, -74, -61, 54, -17, 36, -66, -36, -66, 115, -19, 78, -92, 10, -12, -127, -81, -84, -43, -53, 41, -81, -62, 45, -1, -13, -38, 2, 17, 103, 54, -94, 38, -66, -56, -29, -28, -29, -30, 5, 58, 127, -62, 79, -98, -76, -80, 27, -93};
+
+            if (reader.lazy) {
+                CompletableFuture<SignatureVerifier.Outcome> signature = reader.verifyAsync(ocspResponseBytes);
+                reader.decodeLazily(ocspResponseBytes, null);
+                reader.reportSignature(null, signature);
+                return;
+            }
+            OCSPResp ocspResp = reader.validateAndParse(ocspResponseBytes);
+            if (ocspResp != null) {
+                BasicOCSPResp basicResp = (BasicOCSPResp) ocspResp.getResponseObject();
+                CompletableFuture<SignatureVerifier.Outcome> signature = reader.verifyAsync(basicResp);
+                for (SingleResp singleResp : basicResp.getResponses()) {
+                    reader.decodeSingleResp(singleResp);
+                }
+                reader.reportSignature(null, signature);
+            }
         } catch (OCSPException | IOException e) {
             LOG.log(Level.SEVERE, "Failed to process OCSP response: {0}",  e.getMessage());
         } catch (Exception e) {
             LOG.log(Level.SEVERE ,"Unexpected error while parsing OCSP response: {0}", e.getMessage());
+        } finally {
+            try {
+                reader.getSink().close();
+            } catch (IOException e) {
+                LOG.log(Level.SEVERE, "Failed to close output: {0}", e.getMessage());
+            }
+            PipelineMetrics.logSummary();
+            if (verifier != null) {
+                LOG.log(Level.INFO, "Signature verifier cache: {0} hits, {1} misses, hit rate {2}",
+                        new Object[] {verifier.getHits(), verifier.getMisses(), String.format("%.1f%%", verifier.getHitRate() * 100)});
+            }
+        }
+    }
+
+    /**
+     * Remove {@code <flag> <value>} from the arguments.
+     * @param args mutable command line arguments.
+     * @param flag option name.
+     * @return the option value, or null if the flag is absent.
+     * @throws IllegalArgumentException if the flag has no value.
+     */
+    static String removeOption(List<String> args, String flag) {
+        int index = args.indexOf(flag);
+        if (index < 0) {
+            return null;
+        }
+        if (index + 1 >= args.size()) {
+            throw new IllegalArgumentException("Missing value for " + flag);
+        }
+        String value = args.remove(index + 1);
+        args.remove(index);
+        return value;
+    }
+
+    private static boolean sameFile(String first, String second) {
+        return Paths.get(first).toAbsolutePath().normalize().equals(Paths.get(second).toAbsolutePath().normalize());
+    }
+
+    private static SignatureVerifier createVerifier(List<String> args) throws IOException, GeneralSecurityException {
+        boolean verify = args.remove(VERIFY_FLAG);
+        String trustStore = removeOption(args, TRUSTSTORE_FLAG);
+        String password = removeOption(args, TRUSTSTORE_PASSWORD_FLAG);
+        if (trustStore != null) {
+            return SignatureVerifier.fromTrustStore(Paths.get(trustStore), password == null ? null : password.toCharArray());
         }
+        return verify ? new SignatureVerifier() : null;
     }
 
     /**
-     * Reads the ocsp from file.
+     * Reads the ocsp from file. DER, Base64 and PEM encoded files are accepted.
      * @param filePath Absolute path.
      * @return byte array of the file.
      * @throws IOException
@@ -66,13 +231,7 @@ public class OCSPRespReader {
         if (size == 0 || size > MAX_OCSP_SIZE) {
             throw new IOException("OCSP file is empty or too large: " + size + " bytes");
         }
-        byte[] data = Files.readAllBytes(path);
-
-        if (isBase64Encoded(data)) {
-            String base64String = new String(data).replaceAll("\\s", "");
-            data = Base64.getDecoder().decode(base64String);
-        }
-        return data;
+        return OCSPInputDecoder.read(path, size);
     }
 
     /**
@@ -80,14 +239,15 @@ public class OCSPRespReader {
      * @param data input
      * @return true if the data is base64 encoded, false otherwise.
      */
-    private static boolean isBase64Encoded(byte[] data) {
-        String content = new String(data).trim();
-        return content.matches("^[A-Za-z0-9+/=\\r\\n]+$");
+    static boolean isBase64Encoded(byte[] data) {
+        return OCSPInputDecoder.detect(ByteBuffer.wrap(data)) == OCSPInputDecoder.Encoding.BASE64;
     }
 
     protected OCSPResp validateAndParse(byte[] responseBytes) throws OCSPException, IOException {
+        long start = PipelineMetrics.start();
         try {
             OCSPResp ocspResp = new OCSPResp(responseBytes);
+            PipelineMetrics.responseStatus(ocspResp.getStatus());
             if (ocspResp.getStatus() != OCSPResp.SUCCESSFUL) {
                 LOG.warning("Invalid OCSP response: status = " + ocspResp.getStatus());
                 return null;
@@ -103,25 +263,240 @@ public class OCSPRespReader {
             throw new OCSPException("Malformed OCSP response: " + e.getMessage());
         } catch (IOException e) {
             throw new IOException("Unexpected error while parsing OCSP response: " + e.getMessage());
+        } finally {
+            PipelineMetrics.stage(PipelineMetrics.Stage.PARSE, start, responseBytes.length);
+        }
+    }
+
+    /**
+     * Parse a response and decode all of its entries without passing them to the sink.
+     * @param responseBytes DER encoded OCSP response.
+     * @return one entry per singleResp.
+     * @throws OCSPException if the response is malformed or not successful.
+     * @throws IOException
+     */
+    protected List<OCSPEntry> decodeResponse(byte[] responseBytes) throws OCSPException, IOException {
+        if (lazy) {
+            LazyOCSPDecoder decoder = validateAndLocate(responseBytes);
+            if (decoder == null) {
+                throw new OCSPException("OCSP response is not successful or has no payload.");
+            }
+            List<OCSPEntry> entries = new ArrayList<>();
+            forEachEntry(decoder, entries::add);
+            return entries;
+        }
+        OCSPResp ocspResp = validateAndParse(responseBytes);
+        if (ocspResp == null) {
+            throw new OCSPException("OCSP response is not successful or has no payload.");
+        }
+        BasicOCSPResp basicResp = (BasicOCSPResp) ocspResp.getResponseObject();
+        SingleResp[] responses = basicResp.getResponses();
+        List<OCSPEntry> entries = new ArrayList<>(responses.length);
+        for (SingleResp singleResp : responses) {
+            entries.add(toEntry(singleResp));
+        }
+        return entries;
+    }
+
+    /**
+     * Decode all entries of a response and, if a verifier is configured, verify its signature in parallel.
+     * @param responseBytes DER encoded OCSP response.
+     * @return decoded entries and the signature outcome, which is null without a verifier.
+     * @throws OCSPException if the response is malformed, not successful or cannot be verified.
+     * @throws IOException
+     */
+    protected DecodedResponse decodeAndVerify(byte[] responseBytes) throws OCSPException, IOException {
+        if (lazy) {
+            CompletableFuture<SignatureVerifier.Outcome> signature = verifyAsync(responseBytes);
+            List<OCSPEntry> entries = decodeResponse(responseBytes);
+            return new DecodedResponse(entries, awaitSignature(signature));
+        }
+        OCSPResp ocspResp = validateAndParse(responseBytes);
+        if (ocspResp == null) {
+            throw new OCSPException("OCSP response is not successful or has no payload.");
+        }
+        BasicOCSPResp basicResp = (BasicOCSPResp) ocspResp.getResponseObject();
+        CompletableFuture<SignatureVerifier.Outcome> signature = verifyAsync(basicResp);
+        SingleResp[] responses = basicResp.getResponses();
+        List<OCSPEntry> entries = new ArrayList<>(responses.length);
+        for (SingleResp singleResp : responses) {
+            entries.add(toEntry(singleResp));
+        }
+        return new DecodedResponse(entries, awaitSignature(signature));
+    }
+
+    /**
+     * Start verifying the signature of a parsed response on a virtual thread.
+     * @param basicResp parsed basic response.
+     * @return pending outcome, or null without a verifier.
+     */
+    protected CompletableFuture<SignatureVerifier.Outcome> verifyAsync(BasicOCSPResp basicResp) {
+        if (verifier == null) {
+            return null;
         }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return verifier.verify(basicResp);
+            } catch (OCSPException e) {
+                throw new CompletionException(e);
+            }
+        }, VERIFY_EXECUTOR);
     }
 
     /**
-     * Decode a singleResp and prepare for output.
+     * Start parsing and verifying a DER encoded response on a virtual thread, for the lazy path
+     * that does not build a BasicOCSPResp itself.
+     * @param responseBytes DER encoded OCSP response.
+     * @return pending outcome, or null without a verifier.
+     */
+    protected CompletableFuture<SignatureVerifier.Outcome> verifyAsync(byte[] responseBytes) {
+        if (verifier == null) {
+            return null;
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return verifier.verify(responseBytes);
+            } catch (OCSPException e) {
+                throw new CompletionException(e);
+            }
+        }, VERIFY_EXECUTOR);
+    }
+
+    /**
+     * Wait for a pending verification and hand the outcome to the sink.
+     * @param source file or stream that was verified, may be null.
+     * @param signature pending outcome, null to do nothing.
+     * @throws OCSPException if verification failed.
+     * @throws IOException if the sink cannot write the outcome.
+     */
+    protected void reportSignature(String source, CompletableFuture<SignatureVerifier.Outcome> signature)
+            throws OCSPException, IOException {
+        SignatureVerifier.Outcome outcome = awaitSignature(signature);
+        if (outcome != null) {
+            getSink().signature(source, outcome);
+        }
+    }
+
+    private static SignatureVerifier.Outcome awaitSignature(CompletableFuture<SignatureVerifier.Outcome> signature)
+            throws OCSPException {
+        if (signature == null) {
+            return null;
+        }
+        try {
+            return signature.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof OCSPException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Lazy counterpart of {@link #validateAndParse(byte[])}: checks the status and locates the entries
+     * without decoding them.
+     * @param responseBytes DER encoded OCSP response.
+     * @return decoder over the entries, or null if the response is not successful or has no payload.
+     * @throws OCSPException if the response is malformed.
+     */
+    protected LazyOCSPDecoder validateAndLocate(byte[] responseBytes) throws OCSPException {
+        long start = PipelineMetrics.start();
+        LazyOCSPDecoder decoder;
+        try {
+            decoder = LazyOCSPDecoder.parse(responseBytes);
+        } finally {
+            PipelineMetrics.stage(PipelineMetrics.Stage.PARSE, start, responseBytes.length);
+        }
+        PipelineMetrics.responseStatus(decoder.getResponseStatus());
+        if (decoder.getResponseStatus() != OCSPResp.SUCCESSFUL) {
+            LOG.warning("Invalid OCSP response: status = " + decoder.getResponseStatus());
+            return null;
+        }
+        if (!decoder.hasPayload()) {
+            LOG.warning("OCSP response has no payload.");
+            return null;
+        }
+        return decoder;
+    }
+
+    /**
+     * Decode a response with {@link LazyOCSPDecoder}, handing each entry to the sink as soon as it is decoded.
+     * @param responseBytes DER encoded OCSP response.
+     * @param source file or stream the response came from, may be null.
+     * @throws OCSPException if the response is malformed.
+     * @throws IOException if the sink cannot write an entry.
+     */
+    protected void decodeLazily(byte[] responseBytes, String source) throws OCSPException, IOException {
+        LazyOCSPDecoder decoder = validateAndLocate(responseBytes);
+        if (decoder != null) {
+            forEachEntry(decoder, entry -> getSink().accept(source, entry));
+        }
+    }
+
+    private static void forEachEntry(LazyOCSPDecoder decoder, EntryConsumer consumer) throws OCSPException, IOException {
+        try {
+            for (OCSPEntry entry : decoder) {
+                consumer.accept(entry);
+            }
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof OCSPException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private interface EntryConsumer {
+        void accept(OCSPEntry entry) throws IOException;
+    }
+
+    /**
+     * Decode a singleResp and hand it to the sink.
      * @param singleResp responseObject from OCSPResp.
+     * @throws IOException if the sink cannot write the entry.
      */
-    protected void decodeSingleResp(SingleResp singleResp) {
+    protected void decodeSingleResp(SingleResp singleResp) throws IOException {
+        getSink().accept(null, toEntry(singleResp));
+    }
+
+    /**
+     * Extract the reported fields of a singleResp.
+     * @param singleResp responseObject from OCSPResp.
+     * @return decoded entry.
+     */
+    protected OCSPEntry toEntry(SingleResp singleResp) {
+        long start = PipelineMetrics.start();
         CertificateStatus certStatus = singleResp.getCertStatus();
-        String status;
+        OCSPEntry.Status status;
+        Date revocationTime = null;
         if (certStatus == CertificateStatus.GOOD) {
-            status = "GOOD";
+            status = OCSPEntry.Status.GOOD;
         } else if (certStatus instanceof RevokedStatus revoked) {
-            status = "REVOKED at " + revoked.getRevocationTime();
+            status = OCSPEntry.Status.REVOKED;
+            revocationTime = revoked.getRevocationTime();
         } else {
-            status = "UNKNOWN";
+            status = OCSPEntry.Status.UNKNOWN;
+        }
+        OCSPEntry entry = new OCSPEntry(singleResp.getCertID().getSerialNumber().toString(16).toUpperCase(),
+                status, revocationTime, singleResp.getThisUpdate(), HEX.formatHex(singleResp.getCertID().getIssuerKeyHash()));
+        PipelineMetrics.entry(start, status);
+        return entry;
+    }
+
+    /**
+     * @return the sink given to the constructor, or a {@link LogSink} created on first use if none was given.
+     */
+    protected ResultSink getSink() {
+        ResultSink current = sink;
+        if (current == null) {
+            synchronized (this) {
+                if (sink == null) {
+                    sink = new LogSink(this);
+                }
+                current = sink;
+            }
         }
-        String msg = buildOutputMsg(singleResp.getCertID().getSerialNumber().toString(16).toUpperCase(), status, singleResp.getThisUpdate());
-        LOG.info(msg);
+        return current;
     }
 
     /**
@@ -139,6 +514,16 @@ public class OCSPRespReader {
 
     private static void printUsage() {
         System.out.println("Usage: java -jar OCSPRespReader.jar <ocsp_response_file_path>");
+        System.out.println("       java -jar OCSPRespReader.jar --batch [--concurrency <n>] [--ordered] <dir|glob|@file_list|file>...");
+        System.out.println("       java -jar OCSPRespReader.jar --stream [--concurrency <n>] [<file>|-]");
+        System.out.println("       java -jar OCSPRespReader.jar --server [--port <n>]");
+        System.out.println("       java -jar OCSPRespReader.jar --lookup <index_file> <issuer_key_hash> <serial>...");
+        System.out.println("Options: --format text|ndjson|csv  write entries to stdout instead of the log.");
+        System.out.println("         --lazy                    decode entries straight from the DER without the BouncyCastle object graph.");
+        System.out.println("         --verify                  verify the signature against the embedded responder certificate.");
+        System.out.println("         --truststore <file> [--truststore-password <pw>]  verify against trusted responder or CA certificates.");
+        System.out.println("         --index <file>            store the latest status of every decoded entry in a revocation index.");
+        System.out.println("JVM:     -Docsp.metrics=true      record per-stage latency metrics (JMX, JFR and a summary log).");
         System.out.println("Description: Reads and parses a Base64 or DER encoded OCSP response.");
     }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package org.example;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Built-in output formats selectable with {@code --format}.
+ */
+public enum OutputFormat {
+    TEXT, NDJSON, CSV;
+
+    static final String FORMAT_FLAG = "--format";
+
+    /**
+     * Open a sink of this format.
+     * @param channel destination.
+     * @param closeChannel close the channel with the sink.
+     * @return new sink.
+     */
+    public WriterSink open(WritableByteChannel channel, boolean closeChannel) {
+        return switch (this) {
+            case TEXT -> new TextSink(channel, closeChannel);
+            case NDJSON -> new NdjsonSink(channel, closeChannel);
+            case CSV -> new CsvSink(channel, closeChannel);
+        };
+    }
+
+    /**
+     * Open a sink of this format on stdout, bypassing System.out. Closing the sink flushes but keeps stdout open.
+     * @return new sink.
+     */
+    public WriterSink openStdout() {
+        return open(new FileOutputStream(FileDescriptor.out).getChannel(), false);
+    }
+
+    /**
+     * Remove {@code --format <name>} from the arguments.
+     * @param args mutable command line arguments.
+     * @return the requested format, or null if none was given.
+     * @throws IllegalArgumentException if the format is missing or unknown.
+     */
+    static OutputFormat extract(List<String> args) {
+        String name = OCSPRespReader.removeOption(args, FORMAT_FLAG);
+        return name == null ? null : valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,271 @@
+package org.example;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Per-stage latency histograms, byte counts and status counters for the decode pipeline.
+ * Recording is switched on with {@code -Docsp.metrics=true}. The switch is a static final constant,
+ * so with metrics off every recording call folds to an untaken branch and no clock is read.
+ * While on, every stage also emits a {@link StageEvent} to Flight Recorder.
+ */
+public class PipelineMetrics implements PipelineMetricsMXBean {
+
+    static final String ENABLED_PROPERTY = "ocsp.metrics";
+    static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+    static final String OBJECT_NAME = "org.example:type=PipelineMetrics";
+
+    private static final Logger LOG = Logger.getLogger(PipelineMetrics.class.getName());
+    private static final int BUCKETS = 65;
+    /** OCSPResponseStatus values 0 to 6, see RFC 6960, followed by a bucket for any other value. */
+    private static final String[] RESPONSE_STATUSES = {
+            "SUCCESSFUL", "MALFORMED_REQUEST", "INTERNAL_ERROR", "TRY_LATER", "UNUSED", "SIG_REQUIRED", "UNAUTHORIZED",
+            "OTHER"};
+    private static final int OTHER_RESPONSE_STATUS = RESPONSE_STATUSES.length - 1;
+    private static final PipelineMetrics INSTANCE = new PipelineMetrics();
+
+    /**
+     * Instrumented steps of the pipeline.
+     */
+    public enum Stage {
+        READ, DETECT, BASE64, PARSE, DECODE, OUTPUT
+    }
+
+    private final Map<Stage, StageStats> stages = new EnumMap<>(Stage.class);
+    private final Map<OCSPEntry.Status, LongAdder> certStatuses = new EnumMap<>(OCSPEntry.Status.class);
+    private final LongAdder[] responseStatuses = new LongAdder[RESPONSE_STATUSES.length];
+
+    PipelineMetrics() {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new StageStats());
+        }
+        for (OCSPEntry.Status status : OCSPEntry.Status.values()) {
+            certStatuses.put(status, new LongAdder());
+        }
+        for (int i = 0; i < responseStatuses.length; i++) {
+            responseStatuses[i] = new LongAdder();
+        }
+    }
+
+    public static PipelineMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return a start timestamp, or 0 without reading the clock when metrics are off.
+     */
+    static long start() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Record a finished stage that started at {@code start}.
+     * @param stage finished stage.
+     * @param start value of {@link #start()}.
+     * @param bytes bytes processed by the stage, 0 if not applicable.
+     */
+    static void stage(Stage stage, long start, long bytes) {
+        if (ENABLED) {
+            INSTANCE.record(stage, System.nanoTime() - start, bytes);
+        }
+    }
+
+    /**
+     * Record a decoded entry: the DECODE stage and its certificate status.
+     * @param start value of {@link #start()}.
+     * @param status certificate status of the entry.
+     */
+    static void entry(long start, OCSPEntry.Status status) {
+        if (ENABLED) {
+            INSTANCE.record(Stage.DECODE, System.nanoTime() - start, 0);
+            INSTANCE.countCertStatus(status);
+        }
+    }
+
+    /**
+     * Record the responseStatus of a parsed response.
+     * @param status OCSPResponseStatus value.
+     */
+    static void responseStatus(int status) {
+        if (ENABLED) {
+            INSTANCE.countResponseStatus(status);
+        }
+    }
+
+    /**
+     * Register the shared instance with the platform MBean server if metrics are on.
+     */
+    static void registerMBean() {
+        if (!ENABLED) {
+            return;
+        }
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            LOG.log(Level.WARNING, "Failed to register pipeline metrics MBean: {0}", e.getMessage());
+        }
+    }
+
+    /**
+     * Log a one line summary per stage if metrics are on.
+     */
+    static void logSummary() {
+        if (!ENABLED) {
+            return;
+        }
+        Map<String, Long> counts = INSTANCE.getStageCounts();
+        Map<String, Long> total = INSTANCE.getStageTotalNanos();
+        Map<String, Long> bytes = INSTANCE.getStageBytes();
+        Map<String, Long> p99 = INSTANCE.getStageP99Nanos();
+        for (String stage : counts.keySet()) {
+            LOG.log(Level.INFO, "{0}: count={1} totalMs={2} bytes={3} p99<={4}ns", new Object[] {
+                    stage, counts.get(stage), total.get(stage) / 1_000_000, bytes.get(stage), p99.get(stage)});
+        }
+        LOG.log(Level.INFO, "Certificate statuses: {0}, response statuses: {1}",
+                new Object[] {INSTANCE.getCertStatusCounts(), INSTANCE.getResponseStatusCounts()});
+    }
+
+    void record(Stage stage, long nanos, long bytes) {
+        StageStats stats = stages.get(stage);
+        stats.count.increment();
+        stats.totalNanos.add(nanos);
+        stats.bytes.add(bytes);
+        stats.buckets[bucket(nanos)].increment();
+
+        StageEvent event = new StageEvent();
+        if (event.shouldCommit()) {
+            event.stage = stage.name();
+            event.elapsed = nanos;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    void countCertStatus(OCSPEntry.Status status) {
+        certStatuses.get(status).increment();
+    }
+
+    void countResponseStatus(int status) {
+        responseStatuses[status >= 0 && status < OTHER_RESPONSE_STATUS ? status : OTHER_RESPONSE_STATUS].increment();
+    }
+
+    @Override
+    public Map<String, Long> getStageCounts() {
+        return perStage(stats -> stats.count.sum());
+    }
+
+    @Override
+    public Map<String, Long> getStageTotalNanos() {
+        return perStage(stats -> stats.totalNanos.sum());
+    }
+
+    @Override
+    public Map<String, Long> getStageBytes() {
+        return perStage(stats -> stats.bytes.sum());
+    }
+
+    @Override
+    public Map<String, Long> getStageP50Nanos() {
+        return perStage(stats -> stats.percentile(0.50));
+    }
+
+    @Override
+    public Map<String, Long> getStageP99Nanos() {
+        return perStage(stats -> stats.percentile(0.99));
+    }
+
+    @Override
+    public Map<String, Long> getCertStatusCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        certStatuses.forEach((status, count) -> counts.put(status.name(), count.sum()));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getResponseStatusCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < responseStatuses.length; i++) {
+            counts.put(RESPONSE_STATUSES[i], responseStatuses[i].sum());
+        }
+        return counts;
+    }
+
+    @Override
+    public void reset() {
+        for (StageStats stats : stages.values()) {
+            stats.reset();
+        }
+        certStatuses.values().forEach(LongAdder::reset);
+        for (LongAdder count : responseStatuses) {
+            count.reset();
+        }
+    }
+
+    private Map<String, Long> perStage(ToLongFunction<StageStats> value) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        stages.forEach((stage, stats) -> result.put(stage.name(), value.applyAsLong(stats)));
+        return result;
+    }
+
+    /**
+     * Bucket {@code i} holds durations in {@code [2^(i-1), 2^i)} nanoseconds.
+     */
+    private static int bucket(long nanos) {
+        return nanos <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    private static final class StageStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        StageStats() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        long percentile(double quantile) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return i >= 63 ? Long.MAX_VALUE : 1L << i;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        void reset() {
+            count.reset();
+            totalNanos.reset();
+            bytes.reset();
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.example;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link PipelineMetrics}. Maps are keyed by stage or status name.
+ */
+public interface PipelineMetricsMXBean {
+
+    Map<String, Long> getStageCounts();
+
+    Map<String, Long> getStageTotalNanos();
+
+    Map<String, Long> getStageBytes();
+
+    /**
+     * @return upper bound of the median latency per stage, from power-of-two buckets.
+     */
+    Map<String, Long> getStageP50Nanos();
+
+    /**
+     * @return upper bound of the 99th percentile latency per stage, from power-of-two buckets.
+     */
+    Map<String, Long> getStageP99Nanos();
+
+    Map<String, Long> getCertStatusCounts();
+
+    Map<String, Long> getResponseStatusCounts();
+
+    void reset();
+}
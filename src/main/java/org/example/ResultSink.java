@@ -0,0 +1,35 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Receives decoded entries. Implementations must tolerate calls from several threads.
+ */
+public interface ResultSink extends Closeable {
+
+    /**
+     * Write one decoded entry.
+     * @param source file or stream the entry came from, may be null.
+     * @param entry decoded SingleResp.
+     * @throws IOException if the entry cannot be written.
+     */
+    void accept(String source, OCSPEntry entry) throws IOException;
+
+    /**
+     * Report an input that could not be decoded.
+     * @param source file or stream that failed, may be null.
+     * @param error failure cause.
+     * @throws IOException if the failure cannot be written.
+     */
+    void failure(String source, Exception error) throws IOException;
+
+    /**
+     * Report the signature verification outcome of an input. Ignored unless overridden.
+     * @param source file or stream that was verified, may be null.
+     * @param outcome verification outcome.
+     * @throws IOException if the outcome cannot be written.
+     */
+    default void signature(String source, SignatureVerifier.Outcome outcome) throws IOException {
+    }
+}
@@ -0,0 +1,448 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Latest known status per certificate, keyed by issuer key hash and serial number and kept in a
+ * memory-mapped file. The file is an open-addressing hash table of fixed-size slots, so opening it
+ * only maps and checks the header, and a lookup reads a few slots without allocating per stored entry.
+ * Slots are never removed: a key is added once and its slot is only overwritten by an entry with a
+ * newer thisUpdate. The table is rehashed into a file of twice the size when it is 70% full.
+ * Instances are safe for concurrent use. An open index holds an exclusive lock on its file, so opening
+ * an index that another process or instance has open fails.
+ * Writes go straight to the mapping without a journal: if the process or machine dies while an entry
+ * is written, its slot can be left torn, e.g. with the new thisUpdate and the old status. A crash while
+ * the table grows leaves the previous file in place.
+ * Growing renames the new table over the index while the old one is still mapped, because Java cannot
+ * unmap a buffer. That needs POSIX rename semantics, so the index is only supported on POSIX systems:
+ * on Windows the rename fails and {@link #put} throws an IOException once the table is 70% full,
+ * leaving the index as it was.
+ */
+public class RevocationIndex implements Closeable {
+
+    static final String INDEX_FLAG = "--index";
+    static final String LOOKUP_FLAG = "--lookup";
+
+    static final int INITIAL_CAPACITY = 1 << 16;
+    /** Keeps the mapping below 2 GB. */
+    static final int MAX_CAPACITY = 1 << 24;
+    /** Fits the issuerKeyHash of a SHA-512 CertID. */
+    static final int MAX_KEY_HASH_LENGTH = 64;
+    /** RFC 5280 limits serial numbers to 20 octets. */
+    static final int MAX_SERIAL_LENGTH = 20;
+
+    private static final Logger LOG = Logger.getLogger(RevocationIndex.class.getName());
+    private static final HexFormat HEX = HexFormat.of().withUpperCase();
+    private static final long MAGIC = 0x4F43535049445831L; // "OCSPIDX1"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    /** 108 bytes of slot layout, padded to a multiple of 8. */
+    private static final int SLOT_SIZE = 112;
+
+    // Header layout
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 8;
+    private static final int H_SLOT_SIZE = 12;
+    private static final int H_CAPACITY = 16;
+    private static final int H_SIZE = 24;
+
+    // Slot layout
+    private static final int S_USED = 0;
+    private static final int S_KEY_HASH_LENGTH = 1;
+    private static final int S_SERIAL_LENGTH = 2;
+    private static final int S_FLAGS = 3;
+    private static final int S_HASH = 4;
+    private static final int S_THIS_UPDATE = 8;
+    private static final int S_REVOCATION_TIME = 16;
+    private static final int S_KEY_HASH = 24;
+    private static final int S_SERIAL = S_KEY_HASH + MAX_KEY_HASH_LENGTH;
+
+    private static final int STATUS_MASK = 0x03;
+    private static final int NEGATIVE_SERIAL = 0x04;
+    private static final int HAS_REVOCATION_TIME = 0x08;
+
+    private static final OCSPEntry.Status[] STATUSES = OCSPEntry.Status.values();
+
+    private final Path path;
+    private FileChannel channel;
+    private MappedByteBuffer table;
+    private int capacity;
+    private long size;
+
+    private RevocationIndex(Path path, FileChannel channel, MappedByteBuffer table) {
+        this.path = path;
+        this.channel = channel;
+        this.table = table;
+        this.capacity = (int) table.getLong(H_CAPACITY);
+        this.size = table.getLong(H_SIZE);
+    }
+
+    /**
+     * Open an index file, creating an empty one if it does not exist.
+     * @param path index file.
+     * @return the mapped index.
+     * @throws IOException if the file cannot be mapped, is not an index or is in use.
+     */
+    public static RevocationIndex open(Path path) throws IOException {
+        FileChannel channel = openLocked(path);
+        try {
+            if (channel.size() == 0) {
+                writeHeader(channel, INITIAL_CAPACITY);
+                return new RevocationIndex(path, channel, map(channel, INITIAL_CAPACITY));
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.read(header, 0) < HEADER_SIZE) {
+                throw new IOException("Not a revocation index: " + path);
+            }
+            long capacity = header.getLong(H_CAPACITY);
+            if (header.getLong(H_MAGIC) != MAGIC || header.getInt(H_VERSION) != VERSION
+                    || header.getInt(H_SLOT_SIZE) != SLOT_SIZE || capacity <= 0 || capacity > MAX_CAPACITY
+                    || Long.bitCount(capacity) != 1 || channel.size() != fileSize((int) capacity)) {
+                throw new IOException("Not a revocation index or unsupported version: " + path);
+            }
+            return new RevocationIndex(path, channel, map(channel, (int) capacity));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Entry point for {@code --lookup}. Writes the stored entry of every serial to the reader's sink.
+     * @param reader reader whose sink receives the entries.
+     * @param args index file, issuer key hash in hex and one or more serials in hex.
+     */
+    static void runLookup(OCSPRespReader reader, List<String> args) {
+        if (args.size() < 3) {
+            LOG.log(Level.SEVERE, "Usage: {0} <index> <issuerKeyHash> <serial>...", LOOKUP_FLAG);
+            return;
+        }
+        Path file = Paths.get(args.get(0));
+        if (!Files.exists(file)) {
+            LOG.log(Level.SEVERE, "Revocation index does not exist: {0}", file);
+            return;
+        }
+        ResultSink sink = reader.getSink();
+        try (RevocationIndex index = open(file)) {
+            String issuerKeyHash = args.get(1);
+            for (String serial : args.subList(2, args.size())) {
+                try {
+                    OCSPEntry entry = index.lookup(issuerKeyHash, serial);
+                    if (entry == null) {
+                        sink.failure(serial, new IOException("Serial " + serial + " of issuer " + issuerKeyHash
+                                + " is not in the index"));
+                    } else {
+                        sink.accept(serial, entry);
+                    }
+                } catch (IllegalArgumentException e) {
+                    sink.failure(serial, e);
+                }
+            }
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Failed to read revocation index: {0}", e.getMessage());
+        }
+    }
+
+    /**
+     * Store an entry unless the index already holds one with the same or a newer thisUpdate.
+     * @param entry decoded entry with an issuer key hash.
+     * @return true if the entry was added or replaced an older one.
+     * @throws IOException if the index cannot grow.
+     * @throws IllegalArgumentException if the entry has no issuer key hash or an oversized key.
+     */
+    public synchronized boolean put(OCSPEntry entry) throws IOException {
+        if (entry.issuerKeyHash() == null) {
+            throw new IllegalArgumentException("Entry " + entry.serial() + " has no issuer key hash");
+        }
+        byte[] keyHash = parseKeyHash(entry.issuerKeyHash());
+        boolean negative = entry.serial().startsWith("-");
+        byte[] serial = parseSerial(entry.serial());
+        long thisUpdate = entry.thisUpdate() == null ? Long.MIN_VALUE : entry.thisUpdate().getTime();
+        int hash = hash(keyHash, serial, negative);
+
+        int slot = find(hash, keyHash, serial, negative);
+        if (slot >= 0) {
+            int base = offset(slot);
+            if (table.getLong(base + S_THIS_UPDATE) >= thisUpdate) {
+                return false;
+            }
+            writeValue(base, entry, negative, thisUpdate);
+            return true;
+        }
+        if (size + 1 > capacity * 7L / 10) {
+            grow();
+        }
+        int base = offset(freeSlot(hash));
+        table.put(base + S_KEY_HASH_LENGTH, (byte) keyHash.length);
+        table.put(base + S_SERIAL_LENGTH, (byte) serial.length);
+        table.putInt(base + S_HASH, hash);
+        table.put(base + S_KEY_HASH, keyHash);
+        table.put(base + S_SERIAL, serial);
+        writeValue(base, entry, negative, thisUpdate);
+        table.put(base + S_USED, (byte) 1);
+        table.putLong(H_SIZE, ++size);
+        return true;
+    }
+
+    /**
+     * Look up the latest stored entry of a certificate.
+     * @param issuerKeyHash issuerKeyHash of the CertID in hex.
+     * @param serial serial number in hex, as printed by the reader.
+     * @return the stored entry with normalized upper case hex fields, or null if the certificate is unknown.
+     * @throws IllegalArgumentException if either value is not valid hex or is too long.
+     */
+    public synchronized OCSPEntry lookup(String issuerKeyHash, String serial) {
+        byte[] keyHash = parseKeyHash(issuerKeyHash);
+        boolean negative = serial.startsWith("-");
+        byte[] serialBytes = parseSerial(serial);
+        int slot = find(hash(keyHash, serialBytes, negative), keyHash, serialBytes, negative);
+        if (slot < 0) {
+            return null;
+        }
+        int base = offset(slot);
+        int flags = table.get(base + S_FLAGS);
+        Date revocationTime = (flags & HAS_REVOCATION_TIME) != 0 ? new Date(table.getLong(base + S_REVOCATION_TIME)) : null;
+        long thisUpdate = table.getLong(base + S_THIS_UPDATE);
+        return new OCSPEntry(formatSerial(serialBytes, negative), STATUSES[flags & STATUS_MASK], revocationTime,
+                thisUpdate == Long.MIN_VALUE ? null : new Date(thisUpdate), HEX.formatHex(keyHash));
+    }
+
+    /**
+     * @return number of certificates in the index.
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Write the mapped table to disk and release the file.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            table.force();
+            channel.close();
+        }
+    }
+
+    private void writeValue(int base, OCSPEntry entry, boolean negative, long thisUpdate) {
+        int flags = entry.status().ordinal() | (negative ? NEGATIVE_SERIAL : 0);
+        if (entry.revocationTime() != null) {
+            flags |= HAS_REVOCATION_TIME;
+            table.putLong(base + S_REVOCATION_TIME, entry.revocationTime().getTime());
+        }
+        table.putLong(base + S_THIS_UPDATE, thisUpdate);
+        table.put(base + S_FLAGS, (byte) flags);
+    }
+
+    /**
+     * @return slot of the key, or -1 if it is not stored.
+     */
+    private int find(int hash, byte[] keyHash, byte[] serial, boolean negative) {
+        int mask = capacity - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int base = offset(slot);
+            if (table.get(base + S_USED) == 0) {
+                return -1;
+            }
+            if (table.getInt(base + S_HASH) == hash && matches(base, keyHash, serial, negative)) {
+                return slot;
+            }
+        }
+    }
+
+    private int freeSlot(int hash) {
+        int mask = capacity - 1;
+        int slot = hash & mask;
+        while (table.get(offset(slot) + S_USED) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private boolean matches(int base, byte[] keyHash, byte[] serial, boolean negative) {
+        if (table.get(base + S_KEY_HASH_LENGTH) != keyHash.length || table.get(base + S_SERIAL_LENGTH) != serial.length
+                || ((table.get(base + S_FLAGS) & NEGATIVE_SERIAL) != 0) != negative) {
+            return false;
+        }
+        for (int i = 0; i < keyHash.length; i++) {
+            if (table.get(base + S_KEY_HASH + i) != keyHash[i]) {
+                return false;
+            }
+        }
+        for (int i = 0; i < serial.length; i++) {
+            if (table.get(base + S_SERIAL + i) != serial[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copy every slot into a table of twice the capacity next to the index, then replace the index with it.
+     * The new file is locked before it replaces the index and the old one is unlocked after, so the path
+     * stays locked throughout. Replacing a mapped file is POSIX-only, see the class comment.
+     */
+    private void grow() throws IOException {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IOException("Revocation index is full: " + size + " entries");
+        }
+        int newCapacity = capacity * 2;
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.deleteIfExists(tmp);
+        FileChannel target = openLocked(tmp);
+        MappedByteBuffer grown;
+        try {
+            writeHeader(target, newCapacity);
+            grown = map(target, newCapacity);
+            int mask = newCapacity - 1;
+            byte[] slotBytes = new byte[SLOT_SIZE];
+            for (int slot = 0; slot < capacity; slot++) {
+                int base = offset(slot);
+                if (table.get(base + S_USED) == 0) {
+                    continue;
+                }
+                int newSlot = table.getInt(base + S_HASH) & mask;
+                while (grown.get(HEADER_SIZE + newSlot * SLOT_SIZE + S_USED) != 0) {
+                    newSlot = (newSlot + 1) & mask;
+                }
+                table.get(base, slotBytes);
+                grown.put(HEADER_SIZE + newSlot * SLOT_SIZE, slotBytes);
+            }
+            grown.putLong(H_SIZE, size);
+            grown.force();
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            target.close();
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        channel.close();
+        channel = target;
+        table = grown;
+        capacity = newCapacity;
+    }
+
+    /**
+     * Open or create a file and take an exclusive lock on it, released when the channel is closed.
+     */
+    private static FileChannel openLocked(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.tryLock() == null) {
+                throw new IOException("Revocation index is in use by another process: " + path);
+            }
+            return channel;
+        } catch (OverlappingFileLockException e) {
+            channel.close();
+            throw new IOException("Revocation index is already open: " + path);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void writeHeader(FileChannel channel, int capacity) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(H_MAGIC, MAGIC);
+        header.putInt(H_VERSION, VERSION);
+        header.putInt(H_SLOT_SIZE, SLOT_SIZE);
+        header.putLong(H_CAPACITY, capacity);
+        header.putLong(H_SIZE, 0);
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, int capacity) throws IOException {
+        MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity));
+        table.order(ByteOrder.LITTLE_ENDIAN);
+        return table;
+    }
+
+    private static long fileSize(int capacity) {
+        return HEADER_SIZE + (long) capacity * SLOT_SIZE;
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private static int hash(byte[] keyHash, byte[] serial, boolean negative) {
+        int h = negative ? 0x9E3779B9 : 0;
+        for (byte b : keyHash) {
+            h = 31 * h + b;
+        }
+        for (byte b : serial) {
+            h = 31 * h + b;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    private static byte[] parseKeyHash(String hex) {
+        byte[] keyHash = HEX.parseHex(hex);
+        if (keyHash.length == 0 || keyHash.length > MAX_KEY_HASH_LENGTH) {
+            throw new IllegalArgumentException("Issuer key hash must be 1 to " + MAX_KEY_HASH_LENGTH + " bytes: " + hex);
+        }
+        return keyHash;
+    }
+
+    /**
+     * Parse a hex serial into its magnitude without leading zero bytes. The sign is kept separately.
+     */
+    static byte[] parseSerial(String hex) {
+        int start = hex.startsWith("-") ? 1 : 0;
+        while (start < hex.length() - 1 && hex.charAt(start) == '0') {
+            start++;
+        }
+        int digits = hex.length() - start;
+        if (digits == 0 || (digits + 1) / 2 > MAX_SERIAL_LENGTH) {
+            throw new IllegalArgumentException("Serial must be 1 to " + MAX_SERIAL_LENGTH + " bytes of hex: " + hex);
+        }
+        if (digits == 1 && hex.charAt(start) == '0') {
+            return new byte[0];
+        }
+        byte[] serial = new byte[(digits + 1) / 2];
+        int i = hex.length() - 1;
+        for (int j = serial.length - 1; j >= 0; j--) {
+            int low = Character.digit(hex.charAt(i--), 16);
+            int high = i >= start ? Character.digit(hex.charAt(i--), 16) : 0;
+            if (low < 0 || high < 0) {
+                throw new IllegalArgumentException("Serial is not hex: " + hex);
+            }
+            serial[j] = (byte) (high << 4 | low);
+        }
+        return serial;
+    }
+
+    /**
+     * Format a magnitude the way the reader prints serials, upper case hex without leading zeros.
+     */
+    static String formatSerial(byte[] serial, boolean negative) {
+        if (serial.length == 0) {
+            return "0";
+        }
+        String hex = HEX.formatHex(serial);
+        return (negative ? "-" : "") + (hex.charAt(0) == '0' ? hex.substring(1) : hex);
+    }
+}
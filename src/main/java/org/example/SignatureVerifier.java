@@ -0,0 +1,284 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.bouncycastle.asn1.ocsp.ResponderID;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.cert.CertException;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.bouncycastle.operator.ContentVerifierProvider;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentVerifierProviderBuilder;
+
+/**
+ * Verifies the signature of basic OCSP responses, either against the responder certificate embedded
+ * in the response or against a trust store. With a trust store, a response is accepted if its responder
+ * certificate is in the store, or if it embeds a delegated responder certificate that a certificate in
+ * the store issued, that carries the id-kp-OCSPSigning extended key usage and that is valid at producedAt.
+ * Revocation of delegated responder certificates is not checked.
+ * Verifier providers are cached by responder key hash or by certificate fingerprint, so responses from
+ * the same responder do not rebuild a JCA verifier or convert the same certificate again. A cache hit on
+ * the responder key hash skips the embedded certificates, but a response without any certificate is
+ * still reported as {@link Outcome#NO_RESPONDER_CERT} in embedded mode.
+ * Instances are safe for concurrent use.
+ */
+public class SignatureVerifier {
+
+    /** Responders above this count are verified without caching. */
+    static final int MAX_CACHED_RESPONDERS = 1024;
+
+    /**
+     * Result of verifying one response.
+     */
+    public enum Outcome {
+        VALID, INVALID, NO_RESPONDER_CERT
+    }
+
+    private final Map<ByteBuffer, X509CertificateHolder> trustedByKeyHash;
+    private final Map<X500Name, X509CertificateHolder> trustedByName;
+    private final Map<String, ContentVerifierProvider> cache = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a verifier that checks responses against their embedded responder certificate.
+     */
+    public SignatureVerifier() {
+        this.trustedByKeyHash = null;
+        this.trustedByName = null;
+    }
+
+    /**
+     * Creates a verifier that checks responses against the certificates of a trust store.
+     * Embedded certificates are only used as delegated responder certificates issued by a trusted one.
+     * @param trustStore store whose certificate entries are trusted responders or CAs.
+     * @throws GeneralSecurityException if the store cannot be read.
+     */
+    public SignatureVerifier(KeyStore trustStore) throws GeneralSecurityException {
+        Map<ByteBuffer, X509CertificateHolder> byKeyHash = new HashMap<>();
+        Map<X500Name, X509CertificateHolder> byName = new HashMap<>();
+        for (String alias : Collections.list(trustStore.aliases())) {
+            Certificate certificate = trustStore.getCertificate(alias);
+            if (certificate instanceof X509Certificate x509) {
+                X509CertificateHolder holder = new JcaX509CertificateHolder(x509);
+                byKeyHash.put(ByteBuffer.wrap(keyHash(holder)), holder);
+                byName.put(holder.getSubject(), holder);
+            }
+        }
+        this.trustedByKeyHash = byKeyHash;
+        this.trustedByName = byName;
+    }
+
+    /**
+     * Load a trust store file of any type the JDK can detect, e.g. PKCS12 or JKS.
+     * @param path trust store file.
+     * @param password store password, may be null.
+     * @return verifier backed by the store.
+     * @throws IOException if the file cannot be read.
+     * @throws GeneralSecurityException if the store is invalid.
+     */
+    public static SignatureVerifier fromTrustStore(Path path, char[] password) throws IOException, GeneralSecurityException {
+        return new SignatureVerifier(KeyStore.getInstance(path.toFile(), password));
+    }
+
+    /**
+     * Parse a DER encoded response and verify its signature.
+     * @param responseBytes DER encoded OCSP response.
+     * @return verification outcome.
+     * @throws OCSPException if the response cannot be parsed or has no basic response.
+     */
+    public Outcome verify(byte[] responseBytes) throws OCSPException {
+        try {
+            Object responseObject = new OCSPResp(responseBytes).getResponseObject();
+            if (!(responseObject instanceof BasicOCSPResp basicResp)) {
+                throw new OCSPException("OCSP response has no payload.");
+            }
+            return verify(basicResp);
+        } catch (IOException e) {
+            throw new OCSPException("Malformed OCSP response: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Verify the signature of a basic response.
+     * @param basicResp parsed basic response.
+     * @return verification outcome.
+     * @throws OCSPException if the signature cannot be checked.
+     */
+    public Outcome verify(BasicOCSPResp basicResp) throws OCSPException {
+        ContentVerifierProvider provider = trustedByKeyHash == null ? embeddedProvider(basicResp) : trustedProvider(basicResp);
+        if (provider == null) {
+            return Outcome.NO_RESPONDER_CERT;
+        }
+        return basicResp.isSignatureValid(provider) ? Outcome.VALID : Outcome.INVALID;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return share of lookups answered from the cache, 0 before the first lookup.
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private ContentVerifierProvider trustedProvider(BasicOCSPResp basicResp) throws OCSPException {
+        ResponderID responderId = basicResp.getResponderId().toASN1Primitive();
+        byte[] keyHash = responderId.getKeyHash();
+        X509CertificateHolder trusted = keyHash != null
+                ? trustedByKeyHash.get(ByteBuffer.wrap(keyHash))
+                : trustedByName.get(responderId.getName());
+        if (trusted == null) {
+            return delegatedProvider(basicResp, responderId);
+        }
+        String cacheKey = keyHash != null ? "key:" + hex(keyHash) : "name:" + responderId.getName();
+        ContentVerifierProvider cached = lookup(cacheKey);
+        return cached != null ? cached : store(cacheKey, build(trusted));
+    }
+
+    /**
+     * Accept an embedded responder certificate issued by a trusted certificate for OCSP signing.
+     * Verified certificates are cached by fingerprint, so a rotated responder certificate is checked once.
+     */
+    private ContentVerifierProvider delegatedProvider(BasicOCSPResp basicResp, ResponderID responderId)
+            throws OCSPException {
+        X509CertificateHolder cert = responderCertificate(basicResp.getCerts(), responderId);
+        if (cert == null || !cert.isValidOn(basicResp.getProducedAt())) {
+            return null;
+        }
+        String cacheKey = "delegated:" + hex(sha256(cert));
+        ContentVerifierProvider cached = lookup(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        ExtendedKeyUsage usage = ExtendedKeyUsage.fromExtensions(cert.getExtensions());
+        X509CertificateHolder issuer = trustedByName.get(cert.getIssuer());
+        if (usage == null || !usage.hasKeyPurposeId(KeyPurposeId.id_kp_OCSPSigning) || issuer == null) {
+            return null;
+        }
+        try {
+            return cert.isSignatureValid(build(issuer)) ? store(cacheKey, build(cert)) : null;
+        } catch (CertException e) {
+            throw new OCSPException("Cannot verify delegated responder certificate: " + e.getMessage(), e);
+        }
+    }
+
+    private ContentVerifierProvider embeddedProvider(BasicOCSPResp basicResp) throws OCSPException {
+        X509CertificateHolder[] certs = basicResp.getCerts();
+        if (certs.length == 0) {
+            return null;
+        }
+        ResponderID responderId = basicResp.getResponderId().toASN1Primitive();
+        byte[] keyHash = responderId.getKeyHash();
+        if (keyHash != null) {
+            String cacheKey = "key:" + hex(keyHash);
+            ContentVerifierProvider cached = lookup(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+            X509CertificateHolder cert = responderCertificate(certs, responderId);
+            return cert == null ? null : store(cacheKey, build(cert));
+        }
+        X509CertificateHolder cert = responderCertificate(certs, responderId);
+        if (cert == null) {
+            return null;
+        }
+        String cacheKey = "cert:" + hex(sha256(cert));
+        ContentVerifierProvider cached = lookup(cacheKey);
+        return cached != null ? cached : store(cacheKey, build(cert));
+    }
+
+    /**
+     * @return the certificate named by the ResponderID, or null if none of the certificates matches.
+     */
+    private static X509CertificateHolder responderCertificate(X509CertificateHolder[] certs, ResponderID responderId) {
+        byte[] keyHash = responderId.getKeyHash();
+        for (X509CertificateHolder cert : certs) {
+            if (keyHash != null ? MessageDigest.isEqual(keyHash, keyHash(cert)) : cert.getSubject().equals(responderId.getName())) {
+                return cert;
+            }
+        }
+        return null;
+    }
+
+    private ContentVerifierProvider lookup(String cacheKey) {
+        ContentVerifierProvider cached = cache.get(cacheKey);
+        if (cached != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return cached;
+    }
+
+    private ContentVerifierProvider store(String cacheKey, ContentVerifierProvider provider) {
+        if (cache.size() < MAX_CACHED_RESPONDERS) {
+            cache.putIfAbsent(cacheKey, provider);
+        }
+        return provider;
+    }
+
+    private static ContentVerifierProvider build(X509CertificateHolder cert) throws OCSPException {
+        try {
+            return new JcaContentVerifierProviderBuilder().build(cert);
+        } catch (OperatorCreationException | CertificateException e) {
+            throw new OCSPException("Cannot build verifier for responder certificate: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * SHA-1 of the subject public key bits, as used by ResponderID byKey.
+     */
+    private static byte[] keyHash(X509CertificateHolder cert) {
+        return digest("SHA-1").digest(cert.getSubjectPublicKeyInfo().getPublicKeyData().getBytes());
+    }
+
+    private static byte[] sha256(X509CertificateHolder cert) throws OCSPException {
+        try {
+            return digest("SHA-256").digest(cert.getEncoded());
+        } catch (IOException e) {
+            throw new OCSPException("Cannot encode responder certificate: " + e.getMessage(), e);
+        }
+    }
+
+    private static MessageDigest digest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " is not available", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+}
@@ -0,0 +1,29 @@
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event emitted for every pipeline stage while metrics are enabled.
+ */
+@Name("org.example.PipelineStage")
+@Label("OCSP Pipeline Stage")
+@Category("OCSPRespReader")
+@Description("Duration and input size of one read, detect, Base64, parse, decode or output step")
+class StageEvent extends jdk.jfr.Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
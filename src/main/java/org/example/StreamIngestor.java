@@ -0,0 +1,392 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.bouncycastle.cert.ocsp.OCSPException;
+
+/**
+ * Decodes a stream of concatenated OCSP responses, e.g. an archive piped through stdin.
+ * DER input is split on the length of each outer SEQUENCE, text input holds one Base64 response per line.
+ * Responses are framed on the calling thread and decoded on virtual threads. At most {@code concurrency}
+ * responses are in flight, and reading waits for the oldest one to be emitted, so heap use does not grow
+ * with the length of the stream.
+ */
+public class StreamIngestor {
+
+    static final String STREAM_FLAG = "--stream";
+    static final String STDIN = "-";
+
+    private static final Logger LOG = Logger.getLogger(StreamIngestor.class.getName());
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SEQUENCE = 0x30;
+
+    private final OCSPRespReader reader;
+    private final int concurrency;
+    private final int maxResponseSize;
+
+    /**
+     * @param reader decoder shared by all workers.
+     * @param concurrency maximum number of responses held in memory and decoded at the same time.
+     * @param maxResponseSize largest accepted DER response in bytes, larger responses are skipped and reported.
+     */
+    public StreamIngestor(OCSPRespReader reader, int concurrency, int maxResponseSize) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1: " + concurrency);
+        }
+        this.reader = reader;
+        this.concurrency = concurrency;
+        this.maxResponseSize = maxResponseSize;
+    }
+
+    /**
+     * Entry point for {@code --stream}. Reads stdin, or the given file, and writes every result to the reader's sink.
+     * @param reader decoder whose sink receives the results.
+     * @param args stream options followed by an optional input file, {@code -} for stdin.
+     */
+    static void run(OCSPRespReader reader, List<String> args) {
+        try {
+            String concurrency = OCSPRespReader.removeOption(args, BatchProcessor.CONCURRENCY_FLAG);
+            if (args.size() > 1) {
+                throw new IllegalArgumentException("Expected at most one input for " + STREAM_FLAG + ": " + args);
+            }
+            String input = args.isEmpty() ? STDIN : args.get(0);
+            StreamIngestor ingestor = new StreamIngestor(reader, concurrency == null
+                    ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(concurrency), OCSPRespReader.MAX_OCSP_SIZE);
+            ResultSink sink = reader.getSink();
+            try (ReadableByteChannel channel = STDIN.equals(input)
+                    ? Channels.newChannel(System.in) : FileChannel.open(Paths.get(input))) {
+                Summary summary = ingestor.ingest(channel, STDIN.equals(input) ? "stdin" : input,
+                        result -> writeResult(sink, result));
+                LOG.log(Level.INFO, "Processed {0} responses ({1} bytes), {2} failed.",
+                        new Object[] {summary.responses(), summary.bytes(), summary.failed()});
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            LOG.log(Level.SEVERE, "Failed to read stream: {0}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.log(Level.SEVERE, "Stream interrupted: {0}", e.getMessage());
+        }
+    }
+
+    /**
+     * Decode every response of a stream, see {@link #ingest(ReadableByteChannel, String, Consumer)}.
+     */
+    public Summary ingest(InputStream in, String name, Consumer<Result> consumer) throws IOException, InterruptedException {
+        return ingest(Channels.newChannel(in), name, consumer);
+    }
+
+    /**
+     * Decode every response of a stream, handing the results to the consumer in stream order.
+     * Responses that fail to decode, or exceed the size limit, are reported and skipped.
+     * The consumer is only called from the calling thread.
+     * @param channel blocking channel positioned at the first response.
+     * @param name prefix of the result sources, which are {@code name#index} with a 1-based index.
+     * @param consumer receives one result per response.
+     * @return number of responses, failures and bytes read.
+     * @throws IOException if the stream cannot be read or cannot be split into responses,
+     *         after the results framed so far have been emitted.
+     * @throws InterruptedException if interrupted while waiting for a decode.
+     */
+    public Summary ingest(ReadableByteChannel channel, String name, Consumer<Result> consumer)
+            throws IOException, InterruptedException {
+        Framer framer = new Framer(channel, maxResponseSize);
+        ArrayDeque<CompletableFuture<Result>> inFlight = new ArrayDeque<>(concurrency);
+        long responses = 0;
+        long failed = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                Frame frame;
+                while ((frame = framer.next()) != null) {
+                    if (inFlight.size() == concurrency) {
+                        failed += emit(inFlight.removeFirst(), consumer);
+                    }
+                    String source = name + "#" + ++responses;
+                    Frame current = frame;
+                    inFlight.addLast(CompletableFuture.supplyAsync(() -> decode(source, current), executor));
+                }
+            } finally {
+                while (!inFlight.isEmpty()) {
+                    failed += emit(inFlight.removeFirst(), consumer);
+                }
+            }
+        }
+        return new Summary(responses, failed, framer.offset);
+    }
+
+    /**
+     * Decode one framed response, capturing any failure in the result.
+     * @param source name of the response within the stream.
+     * @param frame raw response.
+     * @return decoded entries and signature outcome, or the error.
+     */
+    protected Result decode(String source, Frame frame) {
+        if (frame.error() != null) {
+            return new Result(source, List.of(), null, frame.error());
+        }
+        try {
+            byte[] der = frame.text() ? OCSPInputDecoder.decode(ByteBuffer.wrap(frame.data())) : frame.data();
+            DecodedResponse decoded = reader.decodeAndVerify(der);
+            return new Result(source, decoded.entries(), decoded.signature(), null);
+        } catch (OCSPException | IOException | RuntimeException e) {
+            return new Result(source, List.of(), null, e);
+        }
+    }
+
+    private static int emit(CompletableFuture<Result> pending, Consumer<Result> consumer) throws InterruptedException {
+        Result result;
+        try {
+            result = pending.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Decode task failed unexpectedly", e.getCause());
+        }
+        consumer.accept(result);
+        return result.error() == null ? 0 : 1;
+    }
+
+    private static void writeResult(ResultSink sink, Result result) {
+        try {
+            if (result.error() != null) {
+                sink.failure(result.source(), result.error());
+                return;
+            }
+            for (OCSPEntry entry : result.entries()) {
+                sink.accept(result.source(), entry);
+            }
+            if (result.signature() != null) {
+                sink.signature(result.source(), result.signature());
+            }
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "Failed to write result for {0}: {1}", new Object[] {result.source(), e.getMessage()});
+        }
+    }
+
+    /**
+     * Splits a byte stream into raw responses through one fixed read buffer. Whether the stream is DER
+     * or Base64 lines is decided once, from the first byte that is not whitespace.
+     */
+    private static final class Framer {
+        private final ReadableByteChannel channel;
+        private final int maxDerSize;
+        private final int maxLineSize;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+        private byte[] line = new byte[4096];
+        private long offset;
+        private boolean eof;
+        private Boolean text;
+
+        Framer(ReadableByteChannel channel, int maxDerSize) {
+            this.channel = channel;
+            this.maxDerSize = maxDerSize;
+            this.maxLineSize = (int) Math.min(Integer.MAX_VALUE - 8, (maxDerSize + 2L) / 3 * 4 + 2);
+        }
+
+        /**
+         * @return the next response, or null at the end of the stream.
+         */
+        Frame next() throws IOException {
+            if (!skipWhitespace()) {
+                return null;
+            }
+            if (text == null) {
+                text = (buffer.get(buffer.position()) & 0xFF) != SEQUENCE;
+            }
+            long start = PipelineMetrics.start();
+            long position = offset;
+            Frame frame = text ? nextLine() : nextDer();
+            PipelineMetrics.stage(PipelineMetrics.Stage.READ, start, offset - position);
+            return frame;
+        }
+
+        private Frame nextDer() throws IOException {
+            long start = offset;
+            if (!ensure(2)) {
+                throw truncated(start);
+            }
+            int pos = buffer.position();
+            if ((buffer.get(pos) & 0xFF) != SEQUENCE) {
+                throw new IOException("Malformed stream: expected a DER SEQUENCE at offset " + start);
+            }
+            int first = buffer.get(pos + 1) & 0xFF;
+            int header = 2;
+            long length = first;
+            if (first >= 0x80) {
+                int octets = first & 0x7F;
+                if (octets == 0 || octets > 4) {
+                    throw new IOException("Malformed stream: unsupported length encoding at offset " + start);
+                }
+                if (!ensure(2 + octets)) {
+                    throw truncated(start);
+                }
+                length = 0;
+                for (int i = 0; i < octets; i++) {
+                    length = (length << 8) | (buffer.get(pos + 2 + i) & 0xFF);
+                }
+                header += octets;
+            }
+            long total = header + length;
+            if (total > maxDerSize) {
+                skip(total, start);
+                return new Frame(null, false, new IOException("Response at offset " + start + " exceeds " + maxDerSize + " bytes"));
+            }
+            byte[] der = new byte[(int) total];
+            read(der, start);
+            return new Frame(der, false, null);
+        }
+
+        private Frame nextLine() throws IOException {
+            long start = offset;
+            int length = 0;
+            boolean tooLong = false;
+            while (buffer.hasRemaining() || fill()) {
+                int pos = buffer.position();
+                int limit = buffer.limit();
+                int end = pos;
+                while (end < limit && buffer.get(end) != '\n') {
+                    end++;
+                }
+                int chunk = end - pos;
+                if (!tooLong && length + chunk > maxLineSize) {
+                    tooLong = true;
+                } else if (!tooLong) {
+                    if (length + chunk > line.length) {
+                        line = Arrays.copyOf(line, (int) Math.min(maxLineSize, Math.max(length + chunk, 2L * line.length)));
+                    }
+                    buffer.get(pos, line, length, chunk);
+                    length += chunk;
+                }
+                boolean newline = end < limit;
+                buffer.position(newline ? end + 1 : end);
+                offset += newline ? chunk + 1 : chunk;
+                if (newline) {
+                    break;
+                }
+            }
+            if (tooLong) {
+                return new Frame(null, true, new IOException("Line at offset " + start + " exceeds " + maxLineSize + " bytes"));
+            }
+            return new Frame(Arrays.copyOf(line, length), true, null);
+        }
+
+        private boolean skipWhitespace() throws IOException {
+            while (buffer.hasRemaining() || fill()) {
+                byte b = buffer.get(buffer.position());
+                if (b != ' ' && b != '\t' && b != '\n' && b != '\r' && b != '\f') {
+                    return true;
+                }
+                buffer.position(buffer.position() + 1);
+                offset++;
+            }
+            return false;
+        }
+
+        /**
+         * Copy the next {@code dst.length} bytes, reading straight into {@code dst} once the buffer is drained.
+         */
+        private void read(byte[] dst, long start) throws IOException {
+            int copied = Math.min(buffer.remaining(), dst.length);
+            buffer.get(dst, 0, copied);
+            ByteBuffer rest = ByteBuffer.wrap(dst, copied, dst.length - copied);
+            while (rest.hasRemaining()) {
+                if (channel.read(rest) < 0) {
+                    eof = true;
+                    throw truncated(start);
+                }
+            }
+            offset += dst.length;
+        }
+
+        private void skip(long count, long start) throws IOException {
+            long left = count;
+            while (left > 0) {
+                if (!buffer.hasRemaining() && !fill()) {
+                    throw truncated(start);
+                }
+                int step = (int) Math.min(left, buffer.remaining());
+                buffer.position(buffer.position() + step);
+                left -= step;
+            }
+            offset += count;
+        }
+
+        private boolean ensure(int count) throws IOException {
+            while (buffer.remaining() < count) {
+                if (!fill()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Read more bytes behind the unread ones.
+         * @return false at the end of the stream.
+         */
+        private boolean fill() throws IOException {
+            if (eof) {
+                return false;
+            }
+            buffer.compact();
+            int read;
+            try {
+                do {
+                    read = channel.read(buffer);
+                } while (read == 0 && buffer.hasRemaining());
+            } finally {
+                buffer.flip();
+            }
+            if (read < 0) {
+                eof = true;
+                return false;
+            }
+            return true;
+        }
+
+        private static IOException truncated(long start) {
+            return new IOException("Malformed stream: ends inside the response at offset " + start);
+        }
+    }
+
+    /**
+     * One response cut from the stream.
+     * @param data DER bytes, or the Base64 line, null if the response was skipped.
+     * @param text whether {@code data} is a Base64 line.
+     * @param error reason the response was skipped, or null.
+     */
+    protected record Frame(byte[] data, boolean text, Exception error) {
+    }
+
+    /**
+     * Outcome of decoding one response of the stream.
+     * @param source stream name and 1-based index of the response.
+     * @param entries one entry per singleResp, empty on failure.
+     * @param signature signature outcome, or null if not verified.
+     * @param error failure cause, or null on success.
+     */
+    public record Result(String source, List<OCSPEntry> entries, SignatureVerifier.Outcome signature, Exception error) {
+    }
+
+    /**
+     * Totals of a stream run.
+     * @param responses number of responses found in the stream.
+     * @param failed number of responses that could not be decoded.
+     * @param bytes number of stream bytes consumed.
+     */
+    public record Summary(long responses, long failed, long bytes) {
+    }
+}
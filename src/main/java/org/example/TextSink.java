@@ -0,0 +1,61 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Human-readable output in the reader's message format, with ISO-8601 timestamps.
+ */
+public class TextSink extends WriterSink {
+
+    public TextSink(WritableByteChannel channel, boolean closeChannel) {
+        super(channel, closeChannel);
+    }
+
+    @Override
+    protected void writeEntry(Writer out, String source, OCSPEntry entry) throws IOException {
+        if (source != null) {
+            out.write(source);
+            out.write(": ");
+        }
+        out.write("The Certificate with CertID: ");
+        out.write(entry.serial());
+        out.write(" is ");
+        out.write(entry.status().name());
+        if (entry.status() == OCSPEntry.Status.REVOKED) {
+            out.write(" at ");
+            out.write(iso(entry.revocationTime()));
+        }
+        out.write("\nLast Update: ");
+        out.write(iso(entry.thisUpdate()));
+        if (entry.issuerKeyHash() != null) {
+            out.write("\nIssuer Key Hash: ");
+            out.write(entry.issuerKeyHash());
+        }
+        out.write('\n');
+    }
+
+    @Override
+    protected void writeFailure(Writer out, String source, Exception error) throws IOException {
+        out.write("Failed to process OCSP response");
+        if (source != null) {
+            out.write(' ');
+            out.write(source);
+        }
+        out.write(": ");
+        out.write(String.valueOf(error.getMessage()));
+        out.write('\n');
+    }
+
+    @Override
+    protected void writeSignature(Writer out, String source, SignatureVerifier.Outcome outcome) throws IOException {
+        if (source != null) {
+            out.write(source);
+            out.write(": ");
+        }
+        out.write("Signature: ");
+        out.write(outcome.name());
+        out.write('\n');
+    }
+}
@@ -0,0 +1,72 @@
+package org.example;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * Base class for sinks that format entries as text and write them through one buffered channel.
+ * Writes are serialized, so a single sink can be shared by batch workers.
+ */
+public abstract class WriterSink implements ResultSink {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+    private final WritableByteChannel channel;
+    private final boolean closeChannel;
+
+    /**
+     * @param channel destination.
+     * @param closeChannel close the channel with the sink, false for shared channels such as stdout.
+     */
+    protected WriterSink(WritableByteChannel channel, boolean closeChannel) {
+        this.writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+    }
+
+    @Override
+    public synchronized void accept(String source, OCSPEntry entry) throws IOException {
+        long start = PipelineMetrics.start();
+        writeEntry(writer, source, entry);
+        PipelineMetrics.stage(PipelineMetrics.Stage.OUTPUT, start, 0);
+    }
+
+    @Override
+    public synchronized void failure(String source, Exception error) throws IOException {
+        writeFailure(writer, source, error);
+    }
+
+    @Override
+    public synchronized void signature(String source, SignatureVerifier.Outcome outcome) throws IOException {
+        writeSignature(writer, source, outcome);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.flush();
+        if (closeChannel) {
+            channel.close();
+        }
+    }
+
+    protected abstract void writeEntry(Writer out, String source, OCSPEntry entry) throws IOException;
+
+    protected abstract void writeFailure(Writer out, String source, Exception error) throws IOException;
+
+    protected abstract void writeSignature(Writer out, String source, SignatureVerifier.Outcome outcome) throws IOException;
+
+    /**
+     * Format a timestamp as ISO-8601 in UTC.
+     * @param date timestamp, may be null.
+     * @return e.g. {@code 2016-05-30T06:52:57Z}, or an empty string for null.
+     */
+    protected static String iso(Date date) {
+        return date == null ? "" : date.toInstant().toString();
+    }
+}
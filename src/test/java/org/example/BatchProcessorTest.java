@@ -0,0 +1,151 @@
+package org.example;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class BatchProcessorTest {
+
+    /** How long the head file blocks; a fourth worker would start within it if permits were returned early. */
+    private static final long HEAD_BLOCK_MILLIS = 300;
+
+    @Test
+    public void orderedBatchReportsFailuresPerFile() throws Exception {
+        Path dir = Files.createTempDirectory("ocsp-batch");
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Path file = dir.resolve(String.format("resp-%02d.resp", i));
+            Files.copy(resource(i % 5 == 0 ? "invalidResp.resp" : "goodResp.resp"), file);
+            files.add(file);
+        }
+
+        List<BatchProcessor.Result> results = new ArrayList<>();
+        BatchProcessor processor = new BatchProcessor(new OCSPRespReader(), 4, true);
+        BatchProcessor.Summary summary = processor.process(files, results::add);
+
+        assertEquals(20, summary.processed());
+        assertEquals(4, summary.failed());
+        for (int i = 0; i < files.size(); i++) {
+            BatchProcessor.Result result = results.get(i);
+            assertEquals(files.get(i), result.file());
+            if (i % 5 == 0) {
+                assertNotNull(result.error());
+                assertTrue(result.entries().isEmpty());
+            } else {
+                assertNull(result.error());
+                assertEquals(1, result.entries().size());
+                assertEquals("75D6470C6F17EFD1", result.entries().get(0).serial());
+                assertEquals(OCSPEntry.Status.GOOD, result.entries().get(0).status());
+            }
+        }
+    }
+
+    @Test
+    public void orderedBatchKeepsEmittingAfterConsumerFailure() throws Exception {
+        List<Path> files = copies(5);
+        List<Path> emitted = new ArrayList<>();
+        BatchProcessor.Summary summary = new BatchProcessor(new OCSPRespReader(), 2, true).process(files, result -> {
+            emitted.add(result.file());
+            if (emitted.size() == 1) {
+                throw new IllegalStateException("sink closed");
+            }
+        });
+
+        assertEquals(files, emitted);
+        assertEquals(new BatchProcessor.Summary(5, 1), summary);
+    }
+
+    @Test(timeout = 10_000)
+    public void orderedBatchEmitsFilesWhoseWorkerThrowsAnError() throws Exception {
+        List<Path> files = copies(5);
+        BatchProcessor processor = new BatchProcessor(new OCSPRespReader(), 2, true) {
+            @Override
+            protected Result processFile(Path file) {
+                if (file.equals(files.get(1))) {
+                    throw new StackOverflowError();
+                }
+                return super.processFile(file);
+            }
+        };
+
+        List<BatchProcessor.Result> results = new ArrayList<>();
+        BatchProcessor.Summary summary = processor.process(files, results::add);
+
+        assertEquals(new BatchProcessor.Summary(5, 1), summary);
+        assertEquals(5, results.size());
+        assertTrue(results.get(1).error().getCause() instanceof StackOverflowError);
+    }
+
+    @Test
+    public void orderedBatchHoldsAtMostConcurrencyResults() throws Exception {
+        List<Path> files = copies(20);
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger startedWhileHeadBlocked = new AtomicInteger();
+        BatchProcessor processor = new BatchProcessor(new OCSPRespReader(), 3, true) {
+            @Override
+            protected Result processFile(Path file) {
+                started.incrementAndGet();
+                if (file.equals(files.get(0))) {
+                    try {
+                        Thread.sleep(HEAD_BLOCK_MILLIS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    startedWhileHeadBlocked.set(started.get());
+                }
+                return super.processFile(file);
+            }
+        };
+
+        List<BatchProcessor.Result> results = new ArrayList<>();
+        processor.process(files, results::add);
+
+        assertEquals(3, startedWhileHeadBlocked.get());
+        assertEquals(20, results.size());
+    }
+
+    @Test
+    public void resolveDirectoryGlobAndListFile() throws IOException {
+        Path dir = Files.createTempDirectory("ocsp-inputs");
+        Path b = Files.createFile(dir.resolve("b.resp"));
+        Path a = Files.createFile(dir.resolve("a.resp"));
+        Path other = Files.createFile(dir.resolve("c.txt"));
+        Path list = Files.write(dir.resolve("list"), List.of(other.toString(), "", a.toString()));
+
+        assertEquals(List.of(a, b, other, list), BatchProcessor.resolveInputs(List.of(dir.toString())));
+        assertEquals(List.of(a, b), BatchProcessor.resolveInputs(List.of(dir + "/*.resp")));
+        Path nested = Files.createFile(Files.createDirectories(dir.resolve("sub/deeper")).resolve("d.resp"));
+        assertEquals(List.of(a, b), BatchProcessor.resolveInputs(List.of(dir + "/*.resp")));
+        assertEquals(List.of(), BatchProcessor.resolveInputs(List.of(dir + "/*/*.resp")));
+        assertEquals(List.of(nested), BatchProcessor.resolveInputs(List.of(dir + "/*/*/*.resp")));
+        assertEquals(List.of(a, b, nested), BatchProcessor.resolveInputs(List.of(dir + "/**.resp")));
+        assertEquals(List.of(other, a), BatchProcessor.resolveInputs(List.of("@" + list)));
+    }
+
+    @Test
+    public void rejectsInvalidConcurrency() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchProcessor(new OCSPRespReader(), 0, false));
+    }
+
+    private static List<Path> copies(int count) throws IOException, URISyntaxException {
+        Path dir = Files.createTempDirectory("ocsp-batch");
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            files.add(Files.copy(resource("goodResp.resp"), dir.resolve(String.format("resp-%02d.resp", i))));
+        }
+        return files;
+    }
+
+    private static Path resource(String name) throws URISyntaxException {
+        return Paths.get(BatchProcessorTest.class.getResource("/" + name).toURI());
+    }
+}
@@ -0,0 +1,107 @@
+package org.example;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.*;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DecodeServerTest {
+
+    private static final int MAX_REQUEST_SIZE = 64 * 1024;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private DecodeServer server;
+
+    @Before
+    public void startServer() throws Exception {
+        OCSPRespReader reader = new OCSPRespReader(null, true, new SignatureVerifier());
+        server = new DecodeServer(reader, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), MAX_REQUEST_SIZE);
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test
+    public void decodesBase64Body() throws Exception {
+        byte[] base64 = Files.readAllBytes(Paths.get(getClass().getResource("/goodResp.resp").toURI()));
+        HttpResponse<String> response = post(base64);
+
+        assertEquals(200, response.statusCode());
+        assertEquals("application/json", response.headers().firstValue("Content-Type").orElse(null));
+        assertEquals("{\"entries\":[{\"serial\":\"75D6470C6F17EFD1\",\"status\":\"GOOD\","
+                + "\"thisUpdate\":\"2016-05-30T06:52:57Z\",\"issuerKeyHash\":\"E9DF7B2AA969FB9FB85DCB8BDE3A5967F2F7E029\"}],\"signature\":\"VALID\"}", response.body());
+    }
+
+    @Test
+    public void decodesDerBodyWithManyEntries() throws Exception {
+        HttpResponse<String> response = post(new OCSPResponseGenerator().generate(50, true));
+
+        assertEquals(200, response.statusCode());
+        assertThat(response.body(), containsString("{\"serial\":\"32\",\"status\":\"REVOKED\""));
+    }
+
+    @Test
+    public void rejectsMalformedBody() throws Exception {
+        byte[] invalid = Files.readAllBytes(Paths.get(getClass().getResource("/invalidResp.resp").toURI()));
+        HttpResponse<String> response = post(invalid);
+
+        assertEquals(400, response.statusCode());
+        assertThat(response.body(), containsString("\"error\":\"Malformed OCSP response:"));
+    }
+
+    @Test
+    public void rejectsOversizedBody() throws Exception {
+        HttpResponse<String> response = post(new byte[MAX_REQUEST_SIZE + 1]);
+        assertEquals(413, response.statusCode());
+    }
+
+    @Test
+    public void rejectsMalformedContentLength() throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("POST " + DecodeServer.DECODE_PATH + " HTTP/1.1\r\nHost: localhost\r\n"
+                    + "Content-Length: 12abc\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            String status = new String(in.readNBytes(12), StandardCharsets.US_ASCII);
+            assertEquals("HTTP/1.1 400", status);
+        }
+    }
+
+    @Test
+    public void rejectsGet() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri(DecodeServer.DECODE_PATH)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, response.statusCode());
+    }
+
+    private HttpResponse<String> post(byte[] body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(DecodeServer.DECODE_PATH))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getPort() + path);
+    }
+}
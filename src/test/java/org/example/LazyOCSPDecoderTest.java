@@ -0,0 +1,138 @@
+package org.example;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.bouncycastle.asn1.ASN1GeneralizedTime;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.bouncycastle.cert.ocsp.OCSPRespBuilder;
+import org.junit.Test;
+
+public class LazyOCSPDecoderTest {
+
+    private final OCSPRespReader reader = new OCSPRespReader();
+    private final OCSPRespReader lazyReader = new OCSPRespReader(null, true);
+
+    @Test
+    public void matchesBouncyCastleForFixture() throws Exception {
+        byte[] der = reader.readOCSPResponse(Paths.get(getClass().getResource("/goodResp.resp").toURI()).toString());
+        assertEquals(reader.decodeResponse(der), lazyReader.decodeResponse(der));
+    }
+
+    @Test
+    public void matchesBouncyCastleForGeneratedResponses() throws Exception {
+        OCSPResponseGenerator generator = new OCSPResponseGenerator();
+        for (int entries : new int[] {1, 100, 1000}) {
+            for (boolean withCertificates : new boolean[] {true, false}) {
+                byte[] der = generator.generate(entries, withCertificates);
+                List<OCSPEntry> expected = reader.decodeResponse(der);
+                assertEquals(entries, expected.size());
+                assertEquals(expected, lazyReader.decodeResponse(der));
+            }
+        }
+    }
+
+    @Test
+    public void locatesSignatureAndCertificatesOnDemand() throws Exception {
+        OCSPResponseGenerator generator = new OCSPResponseGenerator();
+        byte[] der = generator.generate(2, true);
+        BasicOCSPResp basicResp = (BasicOCSPResp) new OCSPResp(der).getResponseObject();
+        LazyOCSPDecoder decoder = LazyOCSPDecoder.parse(der);
+
+        ByteBuffer signature = decoder.getSignature();
+        byte[] bits = new byte[signature.remaining() - 1];
+        signature.get(1, bits);
+        assertArrayEquals(basicResp.getSignature(), bits);
+
+        ByteBuffer certificates = decoder.getCertificates();
+        byte[] encoded = generator.getResponderCertificate().getEncoded();
+        byte[] first = new byte[encoded.length];
+        certificates.get(certificates.remaining() - encoded.length, first);
+        assertArrayEquals(encoded, first);
+
+        assertNull(LazyOCSPDecoder.parse(generator.generate(2, false)).getCertificates());
+    }
+
+    @Test
+    public void reportsUnsuccessfulStatus() throws Exception {
+        byte[] der = new OCSPRespBuilder().build(OCSPRespBuilder.TRY_LATER, null).getEncoded();
+        LazyOCSPDecoder decoder = LazyOCSPDecoder.parse(der);
+        assertEquals(OCSPRespBuilder.TRY_LATER, decoder.getResponseStatus());
+        assertFalse(decoder.hasPayload());
+        assertNull(lazyReader.validateAndLocate(der));
+    }
+
+    @Test
+    public void rejectsMalformedResponse() throws Exception {
+        byte[] der = Files.readAllBytes(Paths.get(getClass().getResource("/invalidResp.resp").toURI()));
+        OCSPException e = assertThrows(OCSPException.class,
+                () -> lazyReader.decodeResponse(reader.readOCSPResponse(
+                        Paths.get(getClass().getResource("/invalidResp.resp").toURI()).toString())));
+        assertThat(e.getMessage(), containsString("Malformed OCSP response:"));
+        assertThrows(OCSPException.class, () -> LazyOCSPDecoder.parse(der));
+    }
+
+    @Test
+    public void rejectsEmptyExtensionSequenceLikeBouncyCastle() throws Exception {
+        byte[] der = reader.readOCSPResponse(Paths.get(getClass().getResource("/emptyExtSequence.resp").toURI()).toString());
+        assertThrows(OCSPException.class, () -> reader.validateAndParse(der));
+        OCSPException e = assertThrows(OCSPException.class, () -> lazyReader.decodeResponse(der));
+        assertThat(e.getMessage(), containsString("empty extension sequence"));
+    }
+
+    @Test
+    public void corruptEntryFailsWhileIterating() throws Exception {
+        byte[] der = new OCSPResponseGenerator().generate(3, false);
+        int serialTwo = indexOf(der, new byte[] {0x02, 0x01, 0x02, (byte) 0xA1});
+        der[serialTwo + 3] = (byte) 0x99;
+
+        Iterator<OCSPEntry> entries = LazyOCSPDecoder.parse(der).iterator();
+        assertEquals("1", entries.next().serial());
+        IllegalStateException e = assertThrows(IllegalStateException.class, entries::next);
+        assertTrue(e.getCause() instanceof OCSPException);
+        assertFalse(entries.hasNext());
+        assertThrows(OCSPException.class, () -> lazyReader.decodeResponse(der));
+        assertThrows(OCSPException.class, () -> LazyOCSPDecoder.parse(Arrays.copyOf(der, 40)));
+    }
+
+    @Test
+    public void parsesGeneralizedTimeLikeBouncyCastle() throws Exception {
+        for (String time : new String[] {"20160530065257Z", "20240229235959.5Z", "19991231000000.123Z", "20500101120000.0Z"}) {
+            byte[] bytes = time.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(time, new ASN1GeneralizedTime(time).getDate().getTime(),
+                    LazyOCSPDecoder.generalizedTime(bytes, 0, bytes.length));
+        }
+    }
+
+    @Test
+    public void formatsSerialLikeBigInteger() throws OCSPException {
+        assertEquals("0", LazyOCSPDecoder.serialHex(new byte[] {0}, 0, 1));
+        assertEquals("80", LazyOCSPDecoder.serialHex(new byte[] {0, (byte) 0x80}, 0, 2));
+        assertEquals("5", LazyOCSPDecoder.serialHex(new byte[] {5}, 0, 1));
+        assertEquals("-1", LazyOCSPDecoder.serialHex(new byte[] {(byte) 0xFF}, 0, 1));
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        throw new AssertionError("pattern not found");
+    }
+}
@@ -0,0 +1,89 @@
+package org.example;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class OCSPInputDecoderTest {
+
+    @Test
+    public void detectsEncodings() throws Exception {
+        byte[] base64 = Files.readAllBytes(resource("goodResp.resp"));
+        byte[] der = Base64.getMimeDecoder().decode(base64);
+
+        assertEquals(OCSPInputDecoder.Encoding.BASE64, OCSPInputDecoder.detect(ByteBuffer.wrap(base64)));
+        assertEquals(OCSPInputDecoder.Encoding.DER, OCSPInputDecoder.detect(ByteBuffer.wrap(der)));
+        assertEquals(OCSPInputDecoder.Encoding.PEM, OCSPInputDecoder.detect(ByteBuffer.wrap(pem(base64))));
+    }
+
+    @Test
+    public void decodesBase64AndPemLikeJdkDecoder() throws IOException {
+        Random random = new Random(42);
+        for (int length = 0; length < 64; length++) {
+            byte[] der = new byte[length + 1];
+            random.nextBytes(der);
+            der[0] = 0x30;
+            byte[] wrapped = Base64.getMimeEncoder(16, "\r\n".getBytes(StandardCharsets.US_ASCII)).encode(der);
+            assertArrayEquals(der, OCSPInputDecoder.decode(ByteBuffer.wrap(wrapped)));
+            assertArrayEquals(der, OCSPInputDecoder.decode(ByteBuffer.wrap(pem(wrapped))));
+            byte[] unpadded = Base64.getEncoder().withoutPadding().encode(der);
+            assertArrayEquals(der, OCSPInputDecoder.decode(ByteBuffer.wrap(unpadded)));
+        }
+    }
+
+    @Test
+    public void rejectsMalformedBase64() {
+        IOException e = assertThrows(IOException.class,
+                () -> OCSPInputDecoder.decode(ByteBuffer.wrap("MII=A".getBytes(StandardCharsets.US_ASCII))));
+        assertThat(e.getMessage(), containsString("Invalid Base64 content"));
+    }
+
+    @Test
+    public void rejectsPemWithoutFooter() {
+        byte[] pem = "-----BEGIN OCSP RESPONSE-----\nMIIB\n".getBytes(StandardCharsets.US_ASCII);
+        IOException e = assertThrows(IOException.class, () -> OCSPInputDecoder.decode(ByteBuffer.wrap(pem)));
+        assertThat(e.getMessage(), containsString("missing"));
+    }
+
+    @Test
+    public void readsMappedLargeFile() throws IOException {
+        byte[] der = new byte[OCSPInputDecoder.MAP_THRESHOLD * 2];
+        new Random(7).nextBytes(der);
+        der[0] = 0x30;
+        der[1] = (byte) 0x82;
+        Path file = Files.createTempFile("ocsp-large", ".pem");
+        Files.write(file, pem(Base64.getMimeEncoder().encode(der)));
+
+        assertArrayEquals(der, OCSPInputDecoder.read(file, Files.size(file)));
+    }
+
+    @Test
+    public void pemFileParsesThroughReader() throws Exception {
+        Path file = Files.createTempFile("ocsp", ".pem");
+        Files.write(file, pem(Files.readAllBytes(resource("goodResp.resp"))));
+        OCSPRespReader reader = new OCSPRespReader();
+
+        assertNotNull(reader.validateAndParse(reader.readOCSPResponse(file.toString())));
+    }
+
+    private static byte[] pem(byte[] base64) {
+        String body = new String(base64, StandardCharsets.US_ASCII).trim();
+        return ("-----BEGIN OCSP RESPONSE-----\n" + body + "\n-----END OCSP RESPONSE-----\n")
+                .getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static Path resource(String name) throws Exception {
+        return Paths.get(OCSPInputDecoderTest.class.getResource("/" + name).toURI());
+    }
+}
@@ -0,0 +1,164 @@
+package org.example;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.asn1.x509.SubjectPublicKeyInfo;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.BasicOCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.bouncycastle.cert.ocsp.OCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.cert.ocsp.UnknownStatus;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.DigestCalculatorProvider;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+
+/**
+ * Builds signed synthetic OCSP responses with any number of entries, for tests and benchmarks.
+ * Entry {@code i} has serial {@code i + 1} and cycles through GOOD, REVOKED and UNKNOWN.
+ */
+public class OCSPResponseGenerator {
+
+    static final Date THIS_UPDATE = new Date(1_700_000_000_000L);
+    static final Date REVOCATION_TIME = new Date(1_690_000_000_000L);
+
+    private final KeyPair keyPair;
+    private final X509CertificateHolder responderCert;
+    private final DigestCalculatorProvider digests;
+
+    public OCSPResponseGenerator() throws NoSuchAlgorithmException, OperatorCreationException {
+        this("CN=Synthetic OCSP Responder");
+    }
+
+    /**
+     * @param responderName subject of the self-signed responder certificate.
+     */
+    public OCSPResponseGenerator(String responderName) throws NoSuchAlgorithmException, OperatorCreationException {
+        this(responderName, null, false);
+    }
+
+    /**
+     * @param responderName subject of the responder certificate.
+     * @param issuer generator whose certificate and key issue the responder certificate, null for a self-signed one.
+     * @param ocspSigning give the responder certificate the id-kp-OCSPSigning extended key usage.
+     */
+    public OCSPResponseGenerator(String responderName, OCSPResponseGenerator issuer, boolean ocspSigning)
+            throws NoSuchAlgorithmException, OperatorCreationException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        X500Name name = new X500Name(responderName);
+        X509v3CertificateBuilder certBuilder = new JcaX509v3CertificateBuilder(
+                issuer == null ? name : issuer.responderCert.getSubject(), BigInteger.ONE,
+                new Date(THIS_UPDATE.getTime() - 86_400_000L), new Date(THIS_UPDATE.getTime() + 86_400_000L),
+                name, keyPair.getPublic());
+        if (ocspSigning) {
+            try {
+                certBuilder.addExtension(Extension.extendedKeyUsage, false, new ExtendedKeyUsage(KeyPurposeId.id_kp_OCSPSigning));
+            } catch (IOException e) {
+                throw new OperatorCreationException("Cannot add extended key usage: " + e.getMessage(), e);
+            }
+        }
+        responderCert = certBuilder.build(issuer == null ? signer() : issuer.signer());
+        digests = new JcaDigestCalculatorProviderBuilder().build();
+    }
+
+    /**
+     * Generate a DER encoded, successful OCSP response.
+     * @param entries number of SingleResp entries.
+     * @param withCertificates embed the responder certificate.
+     * @return DER bytes.
+     */
+    public byte[] generate(int entries, boolean withCertificates)
+            throws OCSPException, OperatorCreationException, IOException {
+        return generateResponse(entries, withCertificates).getEncoded();
+    }
+
+    /**
+     * Generate a successful OCSP response.
+     * @param entries number of SingleResp entries.
+     * @param withCertificates embed the responder certificate.
+     * @return parsed response.
+     */
+    public OCSPResp generateResponse(int entries, boolean withCertificates) throws OCSPException, OperatorCreationException {
+        return generateResponse(entries, withCertificates, CertificateID.HASH_SHA1);
+    }
+
+    /**
+     * Generate a successful OCSP response whose CertIDs use the given hash algorithm.
+     * @param entries number of SingleResp entries.
+     * @param withCertificates embed the responder certificate.
+     * @param certIdHash hash algorithm of the CertIDs.
+     * @return parsed response.
+     */
+    public OCSPResp generateResponse(int entries, boolean withCertificates, AlgorithmIdentifier certIdHash)
+            throws OCSPException, OperatorCreationException {
+        CertificateID template = new CertificateID(digests.get(certIdHash), responderCert, BigInteger.ONE);
+        BasicOCSPRespBuilder builder = new BasicOCSPRespBuilder(
+                SubjectPublicKeyInfo.getInstance(keyPair.getPublic().getEncoded()), digests.get(CertificateID.HASH_SHA1));
+        for (int i = 0; i < entries; i++) {
+            CertificateID id = CertificateID.deriveCertificateID(template, BigInteger.valueOf(i + 1L));
+            builder.addResponse(id, status(i), THIS_UPDATE, (Date) null);
+        }
+        X509CertificateHolder[] chain = withCertificates ? new X509CertificateHolder[] {responderCert} : null;
+        BasicOCSPResp basicResp = builder.build(signer(), chain, THIS_UPDATE);
+        return new OCSPRespBuilder().build(OCSPRespBuilder.SUCCESSFUL, basicResp);
+    }
+
+    public X509CertificateHolder getResponderCertificate() {
+        return responderCert;
+    }
+
+    public KeyPair getKeyPair() {
+        return keyPair;
+    }
+
+    /**
+     * @return issuerKeyHash of every CertID as upper case hex, the SHA-1 of the responder public key bits.
+     */
+    public String getIssuerKeyHash() throws NoSuchAlgorithmException {
+        return getIssuerKeyHash("SHA-1");
+    }
+
+    /**
+     * @param algorithm JCA name of the CertID hash algorithm.
+     * @return issuerKeyHash of every CertID as upper case hex.
+     */
+    public String getIssuerKeyHash(String algorithm) throws NoSuchAlgorithmException {
+        byte[] keyBits = responderCert.getSubjectPublicKeyInfo().getPublicKeyData().getBytes();
+        return HexFormat.of().withUpperCase().formatHex(MessageDigest.getInstance(algorithm).digest(keyBits));
+    }
+
+    private static CertificateStatus status(int index) {
+        return switch (index % 3) {
+            case 0 -> CertificateStatus.GOOD;
+            case 1 -> new RevokedStatus(REVOCATION_TIME, CRLReason.keyCompromise);
+            default -> new UnknownStatus();
+        };
+    }
+
+    private ContentSigner signer() throws OperatorCreationException {
+        return new JcaContentSignerBuilder("SHA256withRSA").build(keyPair.getPrivate());
+    }
+}
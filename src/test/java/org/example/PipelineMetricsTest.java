@@ -0,0 +1,49 @@
+package org.example;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+public class PipelineMetricsTest {
+
+    @Test
+    public void recordsStagesIntoLogBuckets() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        for (int i = 0; i < 99; i++) {
+            metrics.record(PipelineMetrics.Stage.PARSE, 1000, 10);
+        }
+        metrics.record(PipelineMetrics.Stage.PARSE, 1_000_000, 10);
+
+        assertEquals(100L, (long) metrics.getStageCounts().get("PARSE"));
+        assertEquals(0L, (long) metrics.getStageCounts().get("READ"));
+        assertEquals(1000L, (long) metrics.getStageBytes().get("PARSE"));
+        assertEquals(99 * 1000L + 1_000_000L, (long) metrics.getStageTotalNanos().get("PARSE"));
+        assertEquals(1024L, (long) metrics.getStageP50Nanos().get("PARSE"));
+        assertEquals(1024L, (long) metrics.getStageP99Nanos().get("PARSE"));
+        assertEquals(0L, (long) metrics.getStageP99Nanos().get("OUTPUT"));
+    }
+
+    @Test
+    public void countsCertificateAndResponseStatuses() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        metrics.countCertStatus(OCSPEntry.Status.REVOKED);
+        metrics.countCertStatus(OCSPEntry.Status.REVOKED);
+        metrics.countCertStatus(OCSPEntry.Status.GOOD);
+        metrics.countResponseStatus(0);
+        metrics.countResponseStatus(3);
+        metrics.countResponseStatus(42);
+
+        assertEquals(Map.of("GOOD", 1L, "REVOKED", 2L, "UNKNOWN", 0L), metrics.getCertStatusCounts());
+        Map<String, Long> responses = metrics.getResponseStatusCounts();
+        assertEquals(1L, (long) responses.get("SUCCESSFUL"));
+        assertEquals(1L, (long) responses.get("TRY_LATER"));
+        assertEquals(1L, (long) responses.get("OTHER"));
+        assertEquals(3L, responses.values().stream().mapToLong(Long::longValue).sum());
+
+        metrics.reset();
+        assertEquals(0L, (long) metrics.getCertStatusCounts().get("REVOKED"));
+        assertEquals(0L, (long) metrics.getResponseStatusCounts().get("SUCCESSFUL"));
+    }
+}
@@ -0,0 +1,159 @@
+package org.example;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.bouncycastle.asn1.nist.NISTObjectIdentifiers;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.junit.Test;
+
+public class RevocationIndexTest {
+
+    private static final String ISSUER = "E9DF7B2AA969FB9FB85DCB8BDE3A5967F2F7E029";
+
+    @Test
+    public void newestThisUpdateWins() throws IOException {
+        try (RevocationIndex index = RevocationIndex.open(tempIndex())) {
+            assertTrue(index.put(entry("1A", OCSPEntry.Status.GOOD, null, 2000)));
+            assertFalse(index.put(entry("1A", OCSPEntry.Status.REVOKED, new Date(500), 1000)));
+            assertEquals(OCSPEntry.Status.GOOD, index.lookup(ISSUER, "1A").status());
+
+            assertTrue(index.put(entry("1A", OCSPEntry.Status.REVOKED, new Date(2500), 3000)));
+            assertEquals(entry("1A", OCSPEntry.Status.REVOKED, new Date(2500), 3000), index.lookup(ISSUER, "001a"));
+            assertNull(index.lookup(ISSUER.replace('E', 'F'), "1A"));
+            assertEquals(1, index.size());
+        }
+    }
+
+    @Test
+    public void persistsAndGrowsAcrossReopen() throws IOException {
+        Path file = tempIndex();
+        int count = RevocationIndex.INITIAL_CAPACITY;
+        try (RevocationIndex index = RevocationIndex.open(file)) {
+            for (int i = 0; i < count; i++) {
+                index.put(entry(Integer.toHexString(i).toUpperCase(), OCSPEntry.Status.values()[i % 3], null, i));
+            }
+            assertThrows(IOException.class, () -> RevocationIndex.open(file));
+        }
+        try (RevocationIndex index = RevocationIndex.open(file)) {
+            assertEquals(count, index.size());
+            for (int i = 0; i < count; i += 997) {
+                OCSPEntry found = index.lookup(ISSUER, Integer.toHexString(i));
+                assertEquals(OCSPEntry.Status.values()[i % 3], found.status());
+                assertEquals(i, found.thisUpdate().getTime());
+            }
+        }
+        assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".tmp")));
+    }
+
+    @Test
+    public void indexesEntriesFromDecodedResponses() throws Exception {
+        OCSPResponseGenerator generator = new OCSPResponseGenerator();
+        byte[] der = generator.generate(30, false);
+        List<OCSPEntry> entries = new OCSPRespReader().decodeResponse(der);
+        assertEquals(entries, new OCSPRespReader(null, true).decodeResponse(der));
+        assertEquals(generator.getIssuerKeyHash(), entries.get(0).issuerKeyHash());
+
+        Path file = tempIndex();
+        try (IndexSink sink = new IndexSink(RevocationIndex.open(file), null)) {
+            for (OCSPEntry entry : entries) {
+                sink.accept(null, entry);
+            }
+        }
+        try (RevocationIndex index = RevocationIndex.open(file)) {
+            assertEquals(entries.get(0), index.lookup(generator.getIssuerKeyHash().toLowerCase(), "1"));
+            assertEquals(entries.get(29), index.lookup(generator.getIssuerKeyHash(), "1E"));
+        }
+    }
+
+    @Test
+    public void indexesSha384CertIds() throws Exception {
+        OCSPResponseGenerator generator = new OCSPResponseGenerator();
+        byte[] der = generator.generateResponse(3, false, new AlgorithmIdentifier(NISTObjectIdentifiers.id_sha384)).getEncoded();
+        List<OCSPEntry> entries = new OCSPRespReader().decodeResponse(der);
+        assertEquals(entries, new OCSPRespReader(null, true).decodeResponse(der));
+        String issuer = generator.getIssuerKeyHash("SHA-384");
+        assertEquals(issuer, entries.get(0).issuerKeyHash());
+
+        try (RevocationIndex index = RevocationIndex.open(tempIndex())) {
+            for (OCSPEntry entry : entries) {
+                assertTrue(index.put(entry));
+            }
+            assertEquals(entries.get(1), index.lookup(issuer, "2"));
+            assertNull(index.lookup(generator.getIssuerKeyHash(), "2"));
+        }
+    }
+
+    @Test
+    public void sinkReportsEntriesThatCannotBeIndexed() throws IOException {
+        List<OCSPEntry> accepted = new ArrayList<>();
+        List<Exception> failures = new ArrayList<>();
+        ResultSink delegate = new ResultSink() {
+            @Override
+            public void accept(String source, OCSPEntry entry) {
+                accepted.add(entry);
+            }
+
+            @Override
+            public void failure(String source, Exception error) {
+                failures.add(error);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        OCSPEntry oversized = new OCSPEntry("1A", OCSPEntry.Status.GOOD, null, new Date(0), "AB".repeat(65));
+        OCSPEntry missing = new OCSPEntry("1B", OCSPEntry.Status.GOOD, null, new Date(0));
+        try (IndexSink sink = new IndexSink(RevocationIndex.open(tempIndex()), delegate)) {
+            sink.accept("resp.der", oversized);
+            sink.accept("resp.der", missing);
+            assertEquals(List.of(oversized, missing), accepted);
+            assertEquals(2, failures.size());
+            assertTrue(failures.get(0) instanceof IOException);
+        }
+    }
+
+    @Test
+    public void locksTheFileWhileOpen() throws IOException {
+        Path file = tempIndex();
+        try (RevocationIndex index = RevocationIndex.open(file)) {
+            index.put(entry("1A", OCSPEntry.Status.GOOD, null, 1000));
+            IOException e = assertThrows(IOException.class, () -> RevocationIndex.open(file));
+            assertTrue(e.getMessage().contains("already open"));
+        }
+        try (RevocationIndex index = RevocationIndex.open(file)) {
+            assertEquals(1, index.size());
+        }
+    }
+
+    @Test
+    public void serialsRoundTripThroughMagnitude() {
+        assertEquals("0", RevocationIndex.formatSerial(RevocationIndex.parseSerial("000"), false));
+        assertEquals("ABC", RevocationIndex.formatSerial(RevocationIndex.parseSerial("0abc"), false));
+        assertEquals("-7F", RevocationIndex.formatSerial(RevocationIndex.parseSerial("-7F"), true));
+        assertThrows(IllegalArgumentException.class, () -> RevocationIndex.parseSerial("XYZ"));
+        assertThrows(IllegalArgumentException.class, () -> RevocationIndex.parseSerial("1".repeat(41)));
+    }
+
+    @Test
+    public void rejectsOtherFiles() throws IOException {
+        Path file = Files.write(Files.createTempFile("ocsp-index", ".idx"), new byte[128]);
+        assertThrows(IOException.class, () -> RevocationIndex.open(file));
+    }
+
+    private static OCSPEntry entry(String serial, OCSPEntry.Status status, Date revocationTime, long thisUpdate) {
+        return new OCSPEntry(serial, status, revocationTime, new Date(thisUpdate), ISSUER);
+    }
+
+    private static Path tempIndex() throws IOException {
+        Path dir = Files.createTempDirectory("ocsp-index");
+        return dir.resolve("revocations.idx");
+    }
+}
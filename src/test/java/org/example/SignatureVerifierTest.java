@@ -0,0 +1,101 @@
+package org.example;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.junit.Test;
+
+public class SignatureVerifierTest {
+
+    @Test
+    public void verifiesEmbeddedCertificateAndCachesVerifier() throws Exception {
+        OCSPResponseGenerator generator = new OCSPResponseGenerator();
+        SignatureVerifier verifier = new SignatureVerifier();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(SignatureVerifier.Outcome.VALID, verifier.verify(generator.generate(5, true)));
+        }
+        assertEquals(1, verifier.getMisses());
+        assertEquals(9, verifier.getHits());
+        assertEquals(0.9, verifier.getHitRate(), 1e-9);
+    }
+
+    @Test
+    public void detectsTamperedResponse() throws Exception {
+        byte[] der = new OCSPResponseGenerator().generate(5, true);
+        int thisUpdate = new String(der, StandardCharsets.ISO_8859_1).indexOf("20231114");
+        der[thisUpdate + 3] = '4';
+
+        assertEquals(SignatureVerifier.Outcome.INVALID, new SignatureVerifier().verify(der));
+    }
+
+    @Test
+    public void missingResponderCertificate() throws Exception {
+        byte[] der = new OCSPResponseGenerator().generate(1, false);
+        assertEquals(SignatureVerifier.Outcome.NO_RESPONDER_CERT, new SignatureVerifier().verify(der));
+    }
+
+    @Test
+    public void verifiesAgainstTrustStore() throws Exception {
+        OCSPResponseGenerator trusted = new OCSPResponseGenerator("CN=Trusted Responder");
+        OCSPResponseGenerator untrusted = new OCSPResponseGenerator("CN=Other Responder");
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        store.load(null, null);
+        store.setCertificateEntry("responder",
+                new JcaX509CertificateConverter().getCertificate(trusted.getResponderCertificate()));
+        SignatureVerifier verifier = new SignatureVerifier(store);
+
+        assertEquals(SignatureVerifier.Outcome.VALID, verifier.verify(trusted.generate(1, false)));
+        assertEquals(SignatureVerifier.Outcome.VALID, verifier.verify(trusted.generate(1, true)));
+        assertEquals(SignatureVerifier.Outcome.NO_RESPONDER_CERT, verifier.verify(untrusted.generate(1, true)));
+        assertEquals(1, verifier.getHits());
+    }
+
+    @Test
+    public void acceptsDelegatedResponderIssuedByTrustedCa() throws Exception {
+        OCSPResponseGenerator ca = new OCSPResponseGenerator("CN=Trusted CA");
+        OCSPResponseGenerator delegated = new OCSPResponseGenerator("CN=Delegated Responder", ca, true);
+        OCSPResponseGenerator withoutUsage = new OCSPResponseGenerator("CN=Plain Responder", ca, false);
+        OCSPResponseGenerator otherCa = new OCSPResponseGenerator("CN=Other CA");
+        OCSPResponseGenerator foreign = new OCSPResponseGenerator("CN=Foreign Responder", otherCa, true);
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        store.load(null, null);
+        store.setCertificateEntry("ca", new JcaX509CertificateConverter().getCertificate(ca.getResponderCertificate()));
+        SignatureVerifier verifier = new SignatureVerifier(store);
+
+        assertEquals(SignatureVerifier.Outcome.VALID, verifier.verify(delegated.generate(1, true)));
+        assertEquals(SignatureVerifier.Outcome.VALID, verifier.verify(delegated.generate(1, true)));
+        assertEquals(1, verifier.getHits());
+        assertEquals(SignatureVerifier.Outcome.NO_RESPONDER_CERT, verifier.verify(delegated.generate(1, false)));
+        assertEquals(SignatureVerifier.Outcome.NO_RESPONDER_CERT, verifier.verify(withoutUsage.generate(1, true)));
+        assertEquals(SignatureVerifier.Outcome.NO_RESPONDER_CERT, verifier.verify(foreign.generate(1, true)));
+    }
+
+    @Test
+    public void batchReportsSignaturePerFile() throws Exception {
+        OCSPResponseGenerator generator = new OCSPResponseGenerator();
+        Path dir = Files.createTempDirectory("ocsp-verify");
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            files.add(Files.write(dir.resolve(i + ".der"), generator.generate(3, i % 2 == 0)));
+        }
+        for (boolean lazy : new boolean[] {false, true}) {
+            OCSPRespReader reader = new OCSPRespReader(null, lazy, new SignatureVerifier());
+            List<BatchProcessor.Result> results = new ArrayList<>();
+            new BatchProcessor(reader, 3, true).process(files, results::add);
+
+            for (int i = 0; i < files.size(); i++) {
+                assertEquals(3, results.get(i).entries().size());
+                assertEquals(i % 2 == 0 ? SignatureVerifier.Outcome.VALID : SignatureVerifier.Outcome.NO_RESPONDER_CERT,
+                        results.get(i).signature());
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.example;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.Test;
+
+public class StreamIngestorTest {
+
+    @Test
+    public void splitsConcatenatedDerOnSequenceLength() throws Exception {
+        OCSPResponseGenerator generator = new OCSPResponseGenerator();
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (int i = 1; i <= 5; i++) {
+            stream.write(generator.generate(i * 40, i % 2 == 0));
+        }
+
+        List<StreamIngestor.Result> results = new ArrayList<>();
+        StreamIngestor.Summary summary = new StreamIngestor(new OCSPRespReader(), 2, OCSPRespReader.MAX_OCSP_SIZE)
+                .ingest(new OneByteInputStream(stream.toByteArray()), "archive", results::add);
+
+        assertEquals(new StreamIngestor.Summary(5, 0, stream.size()), summary);
+        for (int i = 0; i < 5; i++) {
+            assertEquals("archive#" + (i + 1), results.get(i).source());
+            assertEquals((i + 1) * 40, results.get(i).entries().size());
+        }
+    }
+
+    @Test
+    public void decodesOneBase64ResponsePerLineAndReportsBadLines() throws Exception {
+        byte[] der = new OCSPResponseGenerator().generate(3, false);
+        String line = Base64.getEncoder().encodeToString(der);
+        String text = line + "\r\n\n" + "not base64!\n" + line;
+
+        List<StreamIngestor.Result> results = new ArrayList<>();
+        StreamIngestor.Summary summary = new StreamIngestor(new OCSPRespReader(), 4, OCSPRespReader.MAX_OCSP_SIZE)
+                .ingest(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)), "stdin", results::add);
+
+        assertEquals(3, summary.responses());
+        assertEquals(1, summary.failed());
+        assertEquals(3, results.get(0).entries().size());
+        assertNotNull(results.get(1).error());
+        assertEquals(results.get(0).entries(), results.get(2).entries());
+    }
+
+    @Test
+    public void skipsOversizedResponseAndContinues() throws Exception {
+        OCSPResponseGenerator generator = new OCSPResponseGenerator();
+        byte[] small = generator.generate(1, false);
+        byte[] large = generator.generate(50, false);
+        byte[] stream = concat(large, small);
+
+        List<StreamIngestor.Result> results = new ArrayList<>();
+        new StreamIngestor(new OCSPRespReader(), 1, small.length).ingest(new ByteArrayInputStream(stream), "s", results::add);
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).error().getMessage().contains("exceeds"));
+        assertEquals(1, results.get(1).entries().size());
+    }
+
+    @Test
+    public void truncatedStreamFailsAfterEmittingCompleteResponses() throws Exception {
+        byte[] der = new OCSPResponseGenerator().generate(2, false);
+        byte[] stream = concat(der, Arrays.copyOf(der, der.length / 2));
+
+        List<StreamIngestor.Result> results = new ArrayList<>();
+        StreamIngestor ingestor = new StreamIngestor(new OCSPRespReader(), 2, OCSPRespReader.MAX_OCSP_SIZE);
+        IOException e = assertThrows(IOException.class,
+                () -> ingestor.ingest(new ByteArrayInputStream(stream), "s", results::add));
+
+        assertTrue(e.getMessage().contains("offset " + der.length));
+        assertEquals(1, results.size());
+        assertNull(results.get(0).error());
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] joined = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, joined, first.length, second.length);
+        return joined;
+    }
+
+    /**
+     * Returns one byte per read, so every boundary falls between reads.
+     */
+    private static final class OneByteInputStream extends InputStream {
+        private final ByteArrayInputStream in;
+
+        OneByteInputStream(byte[] data) {
+            this.in = new ByteArrayInputStream(data);
+        }
+
+        @Override
+        public int read() {
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return len == 0 ? 0 : in.read(b, off, 1);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.example;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.cert.ocsp.SingleResp;
+import org.junit.Test;
+
+public class WriterSinkTest {
+
+    private static final OCSPEntry GOOD = new OCSPEntry("75D6470C6F17EFD1", OCSPEntry.Status.GOOD, null,
+            new Date(1464591177000L), "E9DF7B2AA969FB9FB85DCB8BDE3A5967F2F7E029");
+    private static final OCSPEntry REVOKED = new OCSPEntry("1A", OCSPEntry.Status.REVOKED, new Date(0L),
+            new Date(1464591177000L));
+
+    @Test
+    public void ndjsonWritesOneObjectPerLine() throws IOException {
+        String out = write(OutputFormat.NDJSON, "dir/a \"1\".resp");
+        assertEquals("{\"source\":\"dir/a \\\"1\\\".resp\",\"serial\":\"75D6470C6F17EFD1\",\"status\":\"GOOD\","
+                + "\"thisUpdate\":\"2016-05-30T06:52:57Z\",\"issuerKeyHash\":\"E9DF7B2AA969FB9FB85DCB8BDE3A5967F2F7E029\"}\n"
+                + "{\"source\":\"dir/a \\\"1\\\".resp\",\"serial\":\"1A\",\"status\":\"REVOKED\","
+                + "\"revocationTime\":\"1970-01-01T00:00:00Z\",\"thisUpdate\":\"2016-05-30T06:52:57Z\"}\n"
+                + "{\"source\":\"dir/a \\\"1\\\".resp\",\"error\":\"Malformed OCSP response: bad\"}\n", out);
+    }
+
+    @Test
+    public void csvQuotesFieldsAndWritesHeaderOnce() throws IOException {
+        String out = write(OutputFormat.CSV, "a,b.resp");
+        assertEquals(CsvSink.HEADER
+                + "\"a,b.resp\",75D6470C6F17EFD1,GOOD,,2016-05-30T06:52:57Z,E9DF7B2AA969FB9FB85DCB8BDE3A5967F2F7E029,\n"
+                + "\"a,b.resp\",1A,REVOKED,1970-01-01T00:00:00Z,2016-05-30T06:52:57Z,,\n"
+                + "\"a,b.resp\",,ERROR,,,,Malformed OCSP response: bad\n", out);
+    }
+
+    @Test
+    public void textKeepsReaderMessageWithIsoTimestamps() throws IOException {
+        String out = write(OutputFormat.TEXT, null);
+        assertTrue(out.startsWith("The Certificate with CertID: 75D6470C6F17EFD1 is GOOD\n"
+                + "Last Update: 2016-05-30T06:52:57Z\n"
+                + "Issuer Key Hash: E9DF7B2AA969FB9FB85DCB8BDE3A5967F2F7E029\n"
+                + "The Certificate with CertID: 1A is REVOKED at 1970-01-01T00:00:00Z\n"));
+    }
+
+    @Test
+    public void textLeavesOutMissingSource() throws IOException {
+        String out = write(OutputFormat.TEXT, null);
+        assertTrue(out.endsWith("\nFailed to process OCSP response: Malformed OCSP response: bad\n"));
+    }
+
+    @Test
+    public void readerFeedsDecodedEntriesToSink() throws Exception {
+        List<OCSPEntry> entries = new ArrayList<>();
+        OCSPRespReader reader = new OCSPRespReader(new ResultSink() {
+            @Override
+            public void accept(String source, OCSPEntry entry) {
+                entries.add(entry);
+            }
+
+            @Override
+            public void failure(String source, Exception error) {
+                fail(error.getMessage());
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        byte[] der = new OCSPResponseGenerator().generate(3, false);
+        BasicOCSPResp basicResp = (BasicOCSPResp) reader.validateAndParse(der).getResponseObject();
+        for (SingleResp singleResp : basicResp.getResponses()) {
+            reader.decodeSingleResp(singleResp);
+        }
+        assertEquals(reader.decodeResponse(der), entries);
+    }
+
+    private static String write(OutputFormat format, String source) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (WriterSink sink = format.open(Channels.newChannel(bytes), true)) {
+            sink.accept(source, GOOD);
+            sink.accept(source, REVOKED);
+            sink.failure(source, new OCSPException("Malformed OCSP response: bad"));
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+}